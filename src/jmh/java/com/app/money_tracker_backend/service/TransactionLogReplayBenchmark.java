@@ -0,0 +1,138 @@
+package com.app.money_tracker_backend.service;
+
+import com.app.money_tracker_backend.dto.MonthlyTransactionAmountResponse;
+import com.app.money_tracker_backend.dto.MonthlyTransactionSpentResponse;
+import com.app.money_tracker_backend.dto.MonthlyTransactionSummaryResponse;
+import com.app.money_tracker_backend.dto.TransactionLogEntry;
+import com.app.money_tracker_backend.enums.LogAction;
+import com.app.money_tracker_backend.enums.TransactionType;
+import com.app.money_tracker_backend.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory part of the log-replay analytics, on synthetic log datasets of one year:
+ *   calculateSpent             YEAR pie (TransactionService.replaySpent)
+ *   yearlyTransactionSummary   per-month rollup of one type (foldByMonth + yearlySummary)
+ *   yearlyCreditDebitAmount    per-month rollup of all transactions (foldByMonth + yearlyCreditDebit)
+ *
+ * Run with the benchmarks profile (see pom.xml), -prof gc reports allocation rate and GC counts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class TransactionLogReplayBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Dataset {
+
+        // log rows in the year
+        @Param({"1000", "100000", "1000000"})
+        public int rows;
+
+        // about 100 logs per transaction, like a few long-running "Added money" transactions
+        List<Transaction> transactions;
+        List<Transaction> debitTransactions;
+        Map<UUID, String> debitNames;
+        List<TransactionLogEntry> logs;
+        List<TransactionLogEntry> debitLogs;
+        TimeBuckets.YearBuckets months;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            Random random = new Random(42);
+            int transactionCount = Math.max(10, rows / 100);
+
+            transactions = new ArrayList<>(transactionCount);
+            for (int i = 0; i < transactionCount; i++) {
+                transactions.add(Transaction.builder()
+                        .id(UUID.randomUUID())
+                        .transactionName("Transaction " + i)
+                        .transactionType(i % 2 == 0 ? TransactionType.DEBIT : TransactionType.CREDIT)
+                        .build());
+            }
+            debitTransactions = transactions.stream()
+                    .filter(tx -> tx.getTransactionType() == TransactionType.DEBIT)
+                    .toList();
+            debitNames = new HashMap<>();
+            debitTransactions.forEach(tx -> debitNames.put(tx.getId(), tx.getTransactionName()));
+
+            // Ordered by created_at and spread over the year, like the log stream
+            months = TimeBuckets.year(2025, ZoneId.systemDefault());
+            LocalDateTime start = months.all().start();
+            long step = (365L * 24 * 60 * 60) / rows;
+            Set<UUID> created = new HashSet<>();
+
+            logs = new ArrayList<>(rows);
+            debitLogs = new ArrayList<>(rows / 2 + 1);
+            for (int i = 0; i < rows; i++) {
+                Transaction tx = transactions.get(random.nextInt(transactionCount));
+                TransactionLogEntry log = new TransactionLogEntry(
+                        tx.getId(),
+                        created.add(tx.getId()) ? LogAction.CREATED : nextAction(random),
+                        BigDecimal.valueOf(1 + random.nextInt(500_000), 2),
+                        start.plusSeconds(i * step)
+                );
+                logs.add(log);
+                if (tx.getTransactionType() == TransactionType.DEBIT) {
+                    debitLogs.add(log);
+                }
+            }
+        }
+
+        private static LogAction nextAction(Random random) {
+            int roll = random.nextInt(1000);
+            if (roll < 850) return LogAction.ADDED;
+            if (roll < 999) return LogAction.UPDATED;
+            return LogAction.DELETED;
+        }
+    }
+
+    @Benchmark
+    public List<MonthlyTransactionSpentResponse> calculateSpent(Dataset dataset) {
+        return TransactionService.replaySpent(
+                dataset.debitLogs.iterator(),
+                new TransactionLogReplay(dataset.debitNames.size()),
+                dataset.debitNames
+        );
+    }
+
+    @Benchmark
+    public List<MonthlyTransactionSummaryResponse> yearlyTransactionSummary(Dataset dataset) {
+        List<Map<UUID, BigDecimal>> monthlyTotals = emptyYear();
+        TransactionService.foldByMonth(
+                dataset.debitLogs.iterator(),
+                new TransactionLogReplay(dataset.debitTransactions.size()),
+                monthlyTotals,
+                dataset.months
+        );
+        return TransactionService.yearlySummary(dataset.debitTransactions, monthlyTotals);
+    }
+
+    @Benchmark
+    public List<MonthlyTransactionAmountResponse> yearlyCreditDebitAmount(Dataset dataset) {
+        List<Map<UUID, BigDecimal>> monthlyTotals = emptyYear();
+        TransactionService.foldByMonth(
+                dataset.logs.iterator(),
+                new TransactionLogReplay(dataset.transactions.size()),
+                monthlyTotals,
+                dataset.months
+        );
+        return TransactionService.yearlyCreditDebit(dataset.transactions, monthlyTotals);
+    }
+
+    private static List<Map<UUID, BigDecimal>> emptyYear() {
+        List<Map<UUID, BigDecimal>> monthlyTotals = new ArrayList<>(12);
+        for (int month = 1; month <= 12; month++) {
+            monthlyTotals.add(Map.of());
+        }
+        return monthlyTotals;
+    }
+}
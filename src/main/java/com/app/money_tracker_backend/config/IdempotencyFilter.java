@@ -0,0 +1,208 @@
+package com.app.money_tracker_backend.config;
+
+import com.app.money_tracker_backend.service.CurrentUserResolver;
+import com.app.money_tracker_backend.service.IdempotencyStore;
+import com.app.money_tracker_backend.service.IdempotencyStore.Claim;
+import com.app.money_tracker_backend.service.IdempotencyStore.StoredResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Idempotency-Key support for the transaction write endpoints: a client retrying a POST / PUT / DELETE
+ * with the same key gets the stored response (marked Idempotent-Replayed) and nothing is written twice.
+ * Runs after the security chain, keys are scoped per user. Only 2xx responses are kept, a failed request
+ * gives its key back. Reusing a key while it is in flight, or for a different request, is a 409.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String WRITE_PATHS = "/api/transactions";
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final CurrentUserResolver currentUserResolver;
+
+    public IdempotencyFilter(IdempotencyStore store, CurrentUserResolver currentUserResolver) {
+        this.store = store;
+        this.currentUserResolver = currentUserResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(KEY_HEADER) == null
+                || !WRITE_METHODS.contains(request.getMethod())
+                || !request.getRequestURI().startsWith(request.getContextPath() + WRITE_PATHS);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain chain
+    ) throws ServletException, IOException {
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof OAuth2User)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String key = request.getHeader(KEY_HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                    KEY_HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        // 1️⃣ Read the body once: it is part of the fingerprint and replayed to the controller
+        byte[] body = request.getInputStream().readAllBytes();
+        String scopedKey = currentUserResolver.getCurrentUserId() + ":" + key;
+        String fingerprint = fingerprint(request, body);
+
+        // 2️⃣ Replay, reject, or run it
+        Claim claim = store.claim(scopedKey, fingerprint);
+        switch (claim.outcome()) {
+            case REPLAY -> {
+                replay(claim.response(), response);
+                return;
+            }
+            case IN_PROGRESS -> {
+                response.sendError(HttpServletResponse.SC_CONFLICT,
+                        "A request with this " + KEY_HEADER + " is still in progress");
+                return;
+            }
+            case MISMATCH -> {
+                response.sendError(HttpServletResponse.SC_CONFLICT,
+                        KEY_HEADER + " was already used for a different request");
+                return;
+            }
+            case CLAIMED -> {
+                // run below
+            }
+        }
+
+        // 3️⃣ First run: keep a successful response for the retries
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            chain.doFilter(new CachedBodyRequest(request, body), captured);
+
+            int status = captured.getStatus();
+            if (status >= 200 && status < 300) {
+                store.complete(scopedKey, fingerprint,
+                        new StoredResponse(status, captured.getContentType(), captured.getContentAsByteArray()));
+                completed = true;
+            }
+        } finally {
+            if (!completed) {
+                store.release(scopedKey);
+            }
+            captured.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    // Same key, same method + path + body: the retry of one request
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getRequestURI() + "?" + request.getQueryString() + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // The request with its body already read, served again from memory
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // The whole body is in memory: it is available right away and read in one go
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
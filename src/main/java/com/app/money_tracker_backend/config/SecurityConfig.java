@@ -33,7 +33,9 @@ public class SecurityConfig {
                         .requestMatchers(
                                 "/",
                                 "/oauth2/**",
-                                "/api/session-check"
+                                "/api/session-check",
+                                "/actuator/health",
+                                "/actuator/health/**"
                         ).permitAll()
                         .anyRequest().authenticated()
                 )
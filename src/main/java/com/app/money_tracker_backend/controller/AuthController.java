@@ -1,13 +1,17 @@
 package com.app.money_tracker_backend.controller;
 
+import com.app.money_tracker_backend.dto.TimeZoneRequest;
 import com.app.money_tracker_backend.dto.UserProfileResponse;
-import com.app.money_tracker_backend.model.Bank;
 import com.app.money_tracker_backend.service.AuthService;
+import com.app.money_tracker_backend.service.BankCatalog;
 import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.Duration;
 
 
 @CrossOrigin(origins = "http://localhost:5174")
@@ -22,6 +26,9 @@ public class AuthController {
 
     private final AuthService authService;
 
+    @Value("${spendify.banks.max-age:PT5M}")
+    private Duration banksMaxAge;
+
     public AuthController(AuthService authService) {
         this.authService = authService;
     }
@@ -34,15 +41,27 @@ public class AuthController {
         return authService.getCurrentUserProfile();
     }
 
+    // ✅ Time zone of the analytics days and months (IANA id, e.g. "Europe/Berlin")
+    @PutMapping("/api/users/me/time-zone")
+    public UserProfileResponse updateTimeZone(@RequestBody TimeZoneRequest request) {
+        return authService.updateTimeZone(request);
+    }
+
     @GetMapping("/api/session-check")
     public SessionResponse checkSession(HttpSession session) {
         boolean valid = session != null && session.getAttribute("SPRING_SECURITY_CONTEXT") != null;
         return new SessionResponse(valid);
     }
 
+    // ✅ Pre-serialized bank list; If-None-Match with the current ETag gets a 304
     @GetMapping("api/banks")
-    public List<Bank> getAllBanks() {
-        return authService.getAllBanks();
+    public ResponseEntity<byte[]> getAllBanks() {
+        BankCatalog.Snapshot banks = authService.getAllBanks();
+        return ResponseEntity.ok()
+                .eTag(banks.etag())
+                .cacheControl(CacheControl.maxAge(banksMaxAge).cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(banks.json());
     }
 
     static class SessionResponse {
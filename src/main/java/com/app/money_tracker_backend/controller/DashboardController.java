@@ -0,0 +1,28 @@
+package com.app.money_tracker_backend.controller;
+
+import com.app.money_tracker_backend.dto.DashboardResponse;
+import com.app.money_tracker_backend.service.DashboardService;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "http://localhost:5174")
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    // ✅ Transactions, pie, yearly summaries and credit/debit totals in one response.
+    // Defaults: current year, current month, MONTH pie.
+    @GetMapping
+    public DashboardResponse getDashboard(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer month,
+            @RequestParam(required = false) String pieType
+    ) {
+        return dashboardService.getDashboard(year, month, pieType);
+    }
+}
@@ -1,19 +1,24 @@
 package com.app.money_tracker_backend.controller;
 
+import com.app.money_tracker_backend.dto.OutboundEmailResponse;
+import com.app.money_tracker_backend.service.EmailOutboxService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/api")
 public class EmailController {
 
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxService emailOutboxService;
 
     public static class QueryRequest {
         public String to;
@@ -21,18 +26,16 @@ public class EmailController {
         public String body;
     }
 
+    // ✅ Queues the email and returns 202 with its message id, delivery happens in the background
     @PostMapping("/send-query")
-    public String sendQuery(@RequestBody QueryRequest request) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(request.to);
-            message.setSubject(request.subject);
-            message.setText(request.body);
-            mailSender.send(message);
-            return "Email sent successfully";
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "Failed to send email: " + e.getMessage();
-        }
+    public ResponseEntity<OutboundEmailResponse> sendQuery(@RequestBody QueryRequest request) {
+        OutboundEmailResponse queued = emailOutboxService.enqueue(request.to, request.subject, request.body);
+        return ResponseEntity.accepted().body(queued);
+    }
+
+    // ✅ Delivery status of a queued email
+    @GetMapping("/send-query/{messageId}")
+    public OutboundEmailResponse getQueryStatus(@PathVariable UUID messageId) {
+        return emailOutboxService.getStatus(messageId);
     }
-}
\ No newline at end of file
+}
@@ -4,9 +4,15 @@ import com.app.money_tracker_backend.dto.*;
 import com.app.money_tracker_backend.enums.TransactionType;
 import com.app.money_tracker_backend.model.Transaction;
 import com.app.money_tracker_backend.service.TransactionService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
@@ -18,9 +24,11 @@ import java.util.UUID;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final JsonMapper jsonMapper;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, JsonMapper jsonMapper) {
         this.transactionService = transactionService;
+        this.jsonMapper = jsonMapper;
     }
 
     // ✅ Create transaction
@@ -29,10 +37,31 @@ public class TransactionController {
         return transactionService.createTransaction(request);
     }
 
+    // ✅ Create up to 500 transactions in one request
+    @PostMapping("/batch")
+    public List<TransactionResponse> createTransactions(@RequestBody List<TransactionRequest> requests) {
+        return transactionService.createTransactions(requests);
+    }
+
     @GetMapping
     public List<TransactionResponse> getAllTransactions() {
         return transactionService.getAllTransactions();
     }
+
+    // ✅ Cursor-paginated transactions, pass nextCursor back to get the following page
+    @GetMapping("/page")
+    public CursorPage<TransactionResponse> getTransactionsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return transactionService.getTransactionsPage(cursor, limit);
+    }
+
+    // ✅ All transactions as NDJSON, written row by row while reading from the DB
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamTransactions() {
+        return out -> transactionService.streamTransactions(row -> writeLine(out, row));
+    }
     // ✅ Update transaction
     @PutMapping("/{id}")
     public TransactionResponse updateTransaction(
@@ -54,6 +83,19 @@ public class TransactionController {
         return transactionService.getAllTransactionsLogs();
     }
 
+    @GetMapping("/logs/page")
+    public CursorPage<TransactionLogResponse> getTransactionLogsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return transactionService.getTransactionLogsPage(cursor, limit);
+    }
+
+    @GetMapping(value = "/logs/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamTransactionLogs() {
+        return out -> transactionService.streamTransactionLogs(row -> writeLine(out, row));
+    }
+
     @PostMapping("/add-amount")
     public TransactionResponse addAmountToTransaction(
             @RequestBody AddAmountRequest request
@@ -79,6 +121,10 @@ public class TransactionController {
             @RequestParam(required = false) Integer month
     ) {
 
+        // TODAY is kept current in memory, served before any transaction is opened
+        if (type.equalsIgnoreCase("TODAY")) {
+            return transactionService.spentToday();
+        }
         return transactionService.calculateSpent(type, year, month);
     }
 
@@ -97,6 +143,12 @@ public class TransactionController {
         return transactionService.getYearlyCreditDebitAmount(year);
     }
 
-
-
+    private void writeLine(OutputStream out, Object row) {
+        try {
+            out.write(jsonMapper.writeValueAsBytes(row));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,6 @@
+package com.app.money_tracker_backend.dto;
+
+public record BankResponse(
+        Integer id,
+        String bankName
+) {}
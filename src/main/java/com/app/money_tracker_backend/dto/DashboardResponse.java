@@ -0,0 +1,13 @@
+package com.app.money_tracker_backend.dto;
+
+import java.util.List;
+
+// Everything the dashboard page shows, built from one load of the user's data
+public record DashboardResponse(
+        int year,
+        List<TransactionResponse> transactions,
+        List<MonthlyTransactionSpentResponse> spent,
+        List<MonthlyTransactionSummaryResponse> creditSummary,
+        List<MonthlyTransactionSummaryResponse> debitSummary,
+        List<MonthlyTransactionAmountResponse> creditDebitAmounts
+) {}
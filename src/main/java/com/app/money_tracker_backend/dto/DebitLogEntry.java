@@ -0,0 +1,15 @@
+package com.app.money_tracker_backend.dto;
+
+import com.app.money_tracker_backend.enums.LogAction;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// A log of a current DEBIT transaction with the transaction's version and name, read in one statement (TODAY counter)
+public record DebitLogEntry(
+        UUID transactionId,
+        long version,
+        String transactionName,
+        LogAction action,
+        BigDecimal amount
+) {}
@@ -0,0 +1,9 @@
+package com.app.money_tracker_backend.dto;
+
+import java.util.UUID;
+
+// A transaction that has logs in some range, with its owner (used by log compaction)
+public record LoggedTransaction(
+        UUID transactionId,
+        UUID userId
+) {}
@@ -0,0 +1,25 @@
+package com.app.money_tracker_backend.dto;
+
+import com.app.money_tracker_backend.enums.EmailStatus;
+import com.app.money_tracker_backend.model.OutboundEmail;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record OutboundEmailResponse(
+        UUID messageId,
+        EmailStatus status,
+        int attempts,
+        LocalDateTime createdAt,
+        LocalDateTime sentAt
+) {
+    public static OutboundEmailResponse from(OutboundEmail email) {
+        return new OutboundEmailResponse(
+                email.getId(),
+                email.getStatus(),
+                email.getAttempts(),
+                email.getCreatedAt(),
+                email.getSentAt()
+        );
+    }
+}
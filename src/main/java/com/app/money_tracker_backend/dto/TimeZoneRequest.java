@@ -0,0 +1,10 @@
+package com.app.money_tracker_backend.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class TimeZoneRequest {
+    private String timeZone;
+}
@@ -0,0 +1,15 @@
+package com.app.money_tracker_backend.dto;
+
+import com.app.money_tracker_backend.enums.LogAction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Slim read model of a log row: only the columns the analytics replay needs
+public record TransactionLogEntry(
+        UUID transactionId,
+        LogAction action,
+        BigDecimal amount,
+        LocalDateTime createdAt
+) {}
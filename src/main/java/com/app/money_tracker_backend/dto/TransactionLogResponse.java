@@ -1,5 +1,6 @@
 package com.app.money_tracker_backend.dto;
 
+import com.app.money_tracker_backend.enums.LogAction;
 import com.app.money_tracker_backend.enums.TransactionType;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -18,4 +19,17 @@ public class TransactionLogResponse {
     private LocalDateTime createdAt;
     private Integer bankId;
     private String action;
+
+    // Used by JPQL constructor expressions, which select the stored LogAction
+    public TransactionLogResponse(
+            UUID id,
+            String transactionName,
+            TransactionType transactionType,
+            BigDecimal amount,
+            LocalDateTime createdAt,
+            Integer bankId,
+            LogAction action
+    ) {
+        this(id, transactionName, transactionType, amount, createdAt, bankId, action.getDescription());
+    }
 }
@@ -12,4 +12,5 @@ public class UserProfileResponse {
     private String email;
     private String profilePicture;
     private Instant createdAt;
+    private String timeZone;
 }
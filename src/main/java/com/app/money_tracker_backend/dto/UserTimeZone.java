@@ -0,0 +1,7 @@
+package com.app.money_tracker_backend.dto;
+
+// A user's time zone setting (null = spendify.time.default-zone) and its version (used by TimeBuckets)
+public record UserTimeZone(
+        String timeZone,
+        int timeZoneVersion
+) {}
@@ -0,0 +1,8 @@
+package com.app.money_tracker_backend.enums;
+
+public enum EmailStatus {
+    QUEUED,
+    SENDING,
+    SENT,
+    FAILED
+}
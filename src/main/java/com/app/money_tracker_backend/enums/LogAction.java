@@ -0,0 +1,48 @@
+package com.app.money_tracker_backend.enums;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+public enum LogAction {
+    CREATED((short) 1, "Created a new transaction"),
+    UPDATED((short) 2, "Amount for this transaction has been updated"),
+    ADDED((short) 3, "Added money to this existing transaction"),
+    DELETED((short) 4, "Transaction was deleted");
+
+    // Stored in transaction_logs.action (smallint), never reuse a code
+    private final short code;
+
+    // Text shown to clients in the activity log
+    private final String description;
+
+    LogAction(short code, String description) {
+        this.code = code;
+        this.description = description;
+    }
+
+    public static LogAction fromCode(short code) {
+        return switch (code) {
+            case 1 -> CREATED;
+            case 2 -> UPDATED;
+            case 3 -> ADDED;
+            case 4 -> DELETED;
+            default -> throw new IllegalArgumentException("Unknown log action code: " + code);
+        };
+    }
+
+    // True when the action replaces the total instead of building on the previous one
+    public boolean setsTotal() {
+        return this == CREATED || this == UPDATED;
+    }
+
+    // Running total of a transaction after this action (null = no total, e.g. after a delete)
+    public BigDecimal fold(BigDecimal current, BigDecimal amount) {
+        return switch (this) {
+            case CREATED, UPDATED -> amount;
+            case ADDED -> current == null ? amount : current.add(amount);
+            case DELETED -> null;
+        };
+    }
+}
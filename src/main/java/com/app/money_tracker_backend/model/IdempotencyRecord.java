@@ -0,0 +1,40 @@
+package com.app.money_tracker_backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// A claimed Idempotency-Key and, once the first request has finished, the response it got
+@Entity
+@Table(name = "idempotency_keys")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    // user id + ':' + Idempotency-Key
+    @Id
+    @Column(length = 300)
+    private String id;
+
+    // hash of method, path and body of the first request
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    // null while the first request is still running
+    private Integer status;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    private byte[] body;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
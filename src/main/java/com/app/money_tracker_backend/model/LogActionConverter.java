@@ -0,0 +1,19 @@
+package com.app.money_tracker_backend.model;
+
+import com.app.money_tracker_backend.enums.LogAction;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter(autoApply = true)
+public class LogActionConverter implements AttributeConverter<LogAction, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(LogAction action) {
+        return action == null ? null : action.getCode();
+    }
+
+    @Override
+    public LogAction convertToEntityAttribute(Short code) {
+        return code == null ? null : LogAction.fromCode(code);
+    }
+}
@@ -0,0 +1,24 @@
+package com.app.money_tracker_backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// A one-off maintenance job that has completed (see V15__maintenance_jobs.sql)
+@Entity
+@Table(name = "maintenance_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MaintenanceJob {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,60 @@
+package com.app.money_tracker_backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Running total of one transaction inside one calendar month,
+// i.e. the result of replaying that month's logs, kept up to date on every write
+@Entity
+@Table(
+        name = "monthly_transaction_aggregates",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_monthly_aggregate_transaction_period",
+                columnNames = {"transaction_id", "year", "month"}
+        ),
+        indexes = @Index(name = "idx_monthly_aggregate_user_period", columnList = "user_id, year, month")
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MonthlyTransactionAggregate {
+
+    @Id
+    @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7) // time-ordered, appends to the PK index
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "transaction_id", nullable = false)
+    private UUID transactionId;
+
+    @Column(nullable = false)
+    private int year;
+
+    @Column(nullable = false)
+    private int month;
+
+    // null until a log in this month sets a total
+    @Column(precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    // once deleted, later logs of the same month are ignored (same as the replay)
+    @Column(nullable = false)
+    private boolean deleted;
+
+    // the month has a CREATED/UPDATED log: amount is a full total, not an increment on earlier months
+    @Column(nullable = false)
+    private boolean absolute;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
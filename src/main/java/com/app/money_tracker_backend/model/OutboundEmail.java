@@ -0,0 +1,58 @@
+package com.app.money_tracker_backend.model;
+
+import com.app.money_tracker_backend.enums.EmailStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// A message accepted by /api/send-query, kept until it is delivered or runs out of attempts
+@Entity
+@Table(name = "outbound_emails")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboundEmail {
+
+    @Id
+    @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7) // time-ordered, appends to the PK index
+    private UUID id;
+
+    // the user who sent it, only they can see its status
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EmailStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // when QUEUED: earliest next try; when SENDING: end of the worker's lease
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,54 @@
+package com.app.money_tracker_backend.model;
+
+import com.app.money_tracker_backend.enums.LogAction;
+import com.app.money_tracker_backend.enums.TransactionType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// A TransactionLog written in write-behind mode, waiting in transaction_log_outbox to be moved to transaction_logs.
+// Same columns, plain ids instead of associations.
+@Entity
+@Table(name = "transaction_log_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PendingTransactionLog {
+
+    @Id
+    @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7) // kept as the transaction_logs id
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "transaction_id")
+    private UUID transactionId;
+
+    @Column(name = "transaction_name", nullable = false)
+    private String transactionName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", nullable = false)
+    private TransactionType transactionType;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    @Convert(converter = LogActionConverter.class)
+    @Column(nullable = false)
+    private LogAction action;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "bank_id")
+    private Integer bankId;
+}
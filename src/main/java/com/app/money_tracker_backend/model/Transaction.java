@@ -4,6 +4,7 @@ package com.app.money_tracker_backend.model;
 import com.app.money_tracker_backend.enums.TransactionType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -20,6 +21,7 @@ public class Transaction {
 
     @Id
     @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7) // time-ordered, appends to the PK index
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -48,5 +50,9 @@ public class Transaction {
 
     @Column(nullable = false)
     private boolean deleted = false;
+
+    @Version // 🔹 Optimistic lock, bumped by every write (including the atomic add-amount update)
+    @Column(nullable = false)
+    private long version;
 }
 
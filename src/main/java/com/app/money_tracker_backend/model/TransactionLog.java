@@ -3,6 +3,8 @@ package com.app.money_tracker_backend.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+import com.app.money_tracker_backend.enums.LogAction;
 import com.app.money_tracker_backend.enums.TransactionType;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -20,6 +22,7 @@ public class TransactionLog {
 
     @Id
     @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7) // time-ordered, appends to the PK index
     private UUID id;
 
 //    @ManyToOne(fetch = FetchType.LAZY)
@@ -43,8 +46,9 @@ public class TransactionLog {
     @Column(precision = 12, scale = 2)
     private BigDecimal amount;
 
+    @Convert(converter = LogActionConverter.class)
     @Column(nullable = false)
-    private String action; // CREATE, UPDATE, DELETE
+    private LogAction action; // stored as LogAction code
 
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
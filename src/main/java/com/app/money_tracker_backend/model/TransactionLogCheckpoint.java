@@ -0,0 +1,63 @@
+package com.app.money_tracker_backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// State of one transaction at the end of a closed month, compacted from its logs
+// (see TransactionLogCompactionService). Replays start here instead of at the first log of the year.
+@Entity
+@Table(
+        name = "transaction_log_checkpoints",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_log_checkpoint_transaction_period",
+                columnNames = {"transaction_id", "year", "month"}
+        ),
+        indexes = {
+                @Index(name = "idx_log_checkpoint_user_period", columnList = "user_id, year, month"),
+                @Index(name = "idx_log_checkpoint_period", columnList = "year, month")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionLogCheckpoint {
+
+    @Id
+    @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.VERSION_7)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "transaction_id", nullable = false)
+    private UUID transactionId;
+
+    @Column(nullable = false)
+    private int year;
+
+    @Column(nullable = false)
+    private int month;
+
+    // running total from January 1 to the end of this month (null = no total)
+    @Column(precision = 12, scale = 2)
+    private BigDecimal total;
+
+    // deleted somewhere between January 1 and the end of this month
+    @Column(nullable = false)
+    private boolean deleted;
+
+    // this month's logs replayed on their own
+    @Column(name = "month_total", precision = 12, scale = 2)
+    private BigDecimal monthTotal;
+
+    @Column(name = "compacted_at", nullable = false)
+    private LocalDateTime compactedAt;
+}
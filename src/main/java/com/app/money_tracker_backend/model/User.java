@@ -25,6 +25,14 @@ public class User {
     @Column(name = "profile_picture")
     private String profilePicture;
 
+    // IANA zone of the user's days and months in analytics (null = spendify.time.default-zone)
+    @Column(name = "time_zone", length = 64)
+    private String timeZone;
+
+    // Bumped on every change of timeZone, checked by the writes that store month buckets
+    @Column(name = "time_zone_version", nullable = false)
+    private int timeZoneVersion;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt = Instant.now();
 
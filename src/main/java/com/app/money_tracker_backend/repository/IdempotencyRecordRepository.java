@@ -0,0 +1,63 @@
+package com.app.money_tracker_backend.repository;
+
+import com.app.money_tracker_backend.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Claims the key for the first request, atomically across nodes (1 = claimed).
+    // An expired key, or a claim abandoned past its lease (node died mid-request), is taken over.
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_keys (id, fingerprint, created_at, expires_at)
+            VALUES (:id, :fingerprint, :now, :expiresAt)
+            ON CONFLICT (id) DO UPDATE SET
+                fingerprint = EXCLUDED.fingerprint,
+                status = NULL,
+                content_type = NULL,
+                body = NULL,
+                created_at = EXCLUDED.created_at,
+                expires_at = EXCLUDED.expires_at
+            WHERE idempotency_keys.expires_at < :now
+               OR (idempotency_keys.status IS NULL AND idempotency_keys.created_at < :leaseExpiredBefore)
+            """, nativeQuery = true)
+    int claim(
+            @Param("id") String id,
+            @Param("fingerprint") String fingerprint,
+            @Param("now") LocalDateTime now,
+            @Param("expiresAt") LocalDateTime expiresAt,
+            @Param("leaseExpiredBefore") LocalDateTime leaseExpiredBefore
+    );
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE IdempotencyRecord r
+            SET r.status = :status, r.contentType = :contentType, r.body = :body
+            WHERE r.id = :id
+            """)
+    int complete(
+            @Param("id") String id,
+            @Param("status") int status,
+            @Param("contentType") String contentType,
+            @Param("body") byte[] body
+    );
+
+    // Gives the key back after a failed request, so the client's retry runs again
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.status IS NULL")
+    int release(@Param("id") String id);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
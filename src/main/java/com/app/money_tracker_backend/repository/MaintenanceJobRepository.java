@@ -0,0 +1,7 @@
+package com.app.money_tracker_backend.repository;
+
+import com.app.money_tracker_backend.model.MaintenanceJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface MaintenanceJobRepository extends JpaRepository<MaintenanceJob, String> {
+}
@@ -0,0 +1,83 @@
+package com.app.money_tracker_backend.repository;
+
+import com.app.money_tracker_backend.model.MonthlyTransactionAggregate;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface MonthlyTransactionAggregateRepository extends JpaRepository<MonthlyTransactionAggregate, UUID> {
+
+    // Folds one log into its month without reading the row first (mirrors LogAction.fold):
+    // :amount is the folded value for a fresh row, :additive adds it to the existing total,
+    // :absolute sticks once any log of the month sets the total, rows already marked deleted are left alone.
+    // Nothing is written unless the user's zone is still at :zoneVersion (the month was computed in it);
+    // returns 0 then, as for a deleted row.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "monthly_transaction_aggregates"))
+    @Query(value = """
+            INSERT INTO monthly_transaction_aggregates
+                (id, user_id, transaction_id, year, month, amount, deleted, absolute, updated_at)
+            SELECT :id, :userId, :transactionId, :year, :month, CAST(:amount AS numeric), :deleted, :absolute, :updatedAt
+            WHERE EXISTS (SELECT 1 FROM users u WHERE u.id = :userId AND u.time_zone_version = :zoneVersion)
+            ON CONFLICT (transaction_id, year, month) DO UPDATE SET
+                amount = CASE
+                    WHEN :additive THEN COALESCE(monthly_transaction_aggregates.amount, 0) + EXCLUDED.amount
+                    ELSE EXCLUDED.amount
+                END,
+                deleted = EXCLUDED.deleted,
+                absolute = monthly_transaction_aggregates.absolute OR EXCLUDED.absolute,
+                updated_at = EXCLUDED.updated_at
+            WHERE monthly_transaction_aggregates.deleted = false
+            """, nativeQuery = true)
+    int upsert(
+            @Param("id") UUID id,
+            @Param("userId") UUID userId,
+            @Param("transactionId") UUID transactionId,
+            @Param("year") int year,
+            @Param("month") int month,
+            @Param("amount") BigDecimal amount,
+            @Param("deleted") boolean deleted,
+            @Param("additive") boolean additive,
+            @Param("absolute") boolean absolute,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("zoneVersion") int zoneVersion
+    );
+
+    List<MonthlyTransactionAggregate> findAllByUserIdAndYearAndDeletedFalseAndAmountNotNull(
+            UUID userId,
+            int year
+    );
+
+    List<MonthlyTransactionAggregate> findAllByUserIdAndYearAndMonthAndDeletedFalseAndAmountNotNull(
+            UUID userId,
+            int year,
+            int month
+    );
+
+    @Modifying
+    @Query("DELETE FROM MonthlyTransactionAggregate a WHERE a.transactionId IN :transactionIds")
+    int deleteAllByTransactionIdIn(@Param("transactionIds") Collection<UUID> transactionIds);
+
+    @Modifying
+    @Query("DELETE FROM MonthlyTransactionAggregate a WHERE a.userId = :userId")
+    int deleteAllByUserId(@Param("userId") UUID userId);
+
+    // Aggregates of the given month and later (the months that still have their logs in the hot table)
+    @Modifying
+    @Query("""
+            DELETE FROM MonthlyTransactionAggregate a
+            WHERE a.userId = :userId
+              AND (a.year > :year OR (a.year = :year AND a.month >= :month))
+            """)
+    int deleteAllByUserIdFrom(@Param("userId") UUID userId, @Param("year") int year, @Param("month") int month);
+}
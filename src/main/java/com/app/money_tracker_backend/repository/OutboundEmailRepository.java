@@ -0,0 +1,52 @@
+package com.app.money_tracker_backend.repository;
+
+import com.app.money_tracker_backend.enums.EmailStatus;
+import com.app.money_tracker_backend.model.OutboundEmail;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, UUID> {
+
+    Optional<OutboundEmail> findByIdAndUserId(UUID id, UUID userId);
+
+    // Queued rows that are due, and SENDING rows whose worker lease ran out
+    @Query("""
+            SELECT e.id FROM OutboundEmail e
+            WHERE e.status IN :statuses
+              AND e.nextAttemptAt <= :now
+            ORDER BY e.nextAttemptAt
+            """)
+    List<UUID> findDueIds(
+            @Param("statuses") Collection<EmailStatus> statuses,
+            @Param("now") LocalDateTime now,
+            Limit limit
+    );
+
+    // Atomically takes the due rows among ids for one worker, so a message is never sent twice
+    // by concurrent workers or nodes. The lease makes an abandoned claim due again.
+    @Transactional
+    @Query(value = """
+            UPDATE outbound_emails
+            SET status = 'SENDING',
+                attempts = attempts + 1,
+                next_attempt_at = :leaseUntil
+            WHERE id IN (:ids)
+              AND status IN ('QUEUED', 'SENDING')
+              AND next_attempt_at <= :now
+            RETURNING *
+            """, nativeQuery = true)
+    List<OutboundEmail> claim(
+            @Param("ids") Collection<UUID> ids,
+            @Param("now") LocalDateTime now,
+            @Param("leaseUntil") LocalDateTime leaseUntil
+    );
+}
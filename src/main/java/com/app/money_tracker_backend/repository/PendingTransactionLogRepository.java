@@ -0,0 +1,77 @@
+package com.app.money_tracker_backend.repository;
+
+import com.app.money_tracker_backend.dto.TransactionLogEntry;
+import com.app.money_tracker_backend.model.PendingTransactionLog;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface PendingTransactionLogRepository extends JpaRepository<PendingTransactionLog, UUID> {
+
+    // Moves the oldest pending logs to transaction_logs in one statement. SKIP LOCKED lets several nodes
+    // flush side by side without taking the same rows twice.
+    @Modifying
+    @Query(value = """
+            WITH moved AS (
+                DELETE FROM transaction_log_outbox
+                WHERE id IN (
+                    SELECT id FROM transaction_log_outbox
+                    ORDER BY id
+                    LIMIT :limit
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING id, user_id, transaction_id, transaction_name, transaction_type, amount, action, created_at, bank_id
+            )
+            INSERT INTO transaction_logs
+                (id, user_id, transaction_id, transaction_name, transaction_type, amount, action, created_at, bank_id)
+            SELECT id, user_id, transaction_id, transaction_name, transaction_type, amount, action, created_at, bank_id
+            FROM moved
+            """, nativeQuery = true)
+    int moveBatch(@Param("limit") int limit);
+
+    // Moves every pending log of one user. Rows taken by a running batch are waited for, not skipped,
+    // so once this returns all of the user's logs are in transaction_logs.
+    @Modifying
+    @Query(value = """
+            WITH moved AS (
+                DELETE FROM transaction_log_outbox
+                WHERE user_id = :userId
+                RETURNING id, user_id, transaction_id, transaction_name, transaction_type, amount, action, created_at, bank_id
+            )
+            INSERT INTO transaction_logs
+                (id, user_id, transaction_id, transaction_name, transaction_type, amount, action, created_at, bank_id)
+            SELECT id, user_id, transaction_id, transaction_name, transaction_type, amount, action, created_at, bank_id
+            FROM moved
+            """, nativeQuery = true)
+    int moveByUserId(@Param("userId") UUID userId);
+
+    boolean existsByUserId(UUID userId);
+
+    // The user's logs still waiting here, oldest first. Read next to transaction_logs when a rebuild cannot
+    // flush them (it holds the user row the flush would wait for); rows a running batch is moving are still seen.
+    @Query("""
+            SELECT new com.app.money_tracker_backend.dto.TransactionLogEntry(
+                p.transactionId, p.action, p.amount, p.createdAt)
+            FROM PendingTransactionLog p
+            WHERE p.userId = :userId
+              AND p.createdAt >= :from
+            ORDER BY p.createdAt ASC
+            """)
+    List<TransactionLogEntry> findEntriesByUserIdFrom(
+            @Param("userId") UUID userId,
+            @Param("from") LocalDateTime from
+    );
+
+    @Modifying
+    @Query("DELETE FROM PendingTransactionLog p WHERE p.userId = :userId")
+    int deleteAllByUserId(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query("DELETE FROM PendingTransactionLog p WHERE p.transactionId IN :transactionIds")
+    int deleteAllByTransactionIdIn(@Param("transactionIds") List<UUID> transactionIds);
+}
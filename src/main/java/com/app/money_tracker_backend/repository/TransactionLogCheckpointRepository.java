@@ -0,0 +1,67 @@
+package com.app.money_tracker_backend.repository;
+
+import com.app.money_tracker_backend.model.TransactionLogCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface TransactionLogCheckpointRepository extends JpaRepository<TransactionLogCheckpoint, UUID> {
+
+    // Last compacted month of a year (null = nothing compacted yet).
+    // Months are compacted in order, each in one transaction, so every month up to it is complete.
+    @Query("SELECT MAX(c.month) FROM TransactionLogCheckpoint c WHERE c.year = :year")
+    Integer findCompactedThrough(@Param("year") int year);
+
+    // Latest checkpoint per transaction of a user, up to the given month
+    @Query(value = """
+            SELECT DISTINCT ON (transaction_id) *
+            FROM transaction_log_checkpoints
+            WHERE user_id = :userId
+              AND year = :year
+              AND month <= :month
+            ORDER BY transaction_id, month DESC
+            """, nativeQuery = true)
+    List<TransactionLogCheckpoint> findLatestByUserId(
+            @Param("userId") UUID userId,
+            @Param("year") int year,
+            @Param("month") int month
+    );
+
+    // Same for the given transactions, used by compaction to seed the next month
+    @Query(value = """
+            SELECT DISTINCT ON (transaction_id) *
+            FROM transaction_log_checkpoints
+            WHERE transaction_id IN (:transactionIds)
+              AND year = :year
+              AND month <= :month
+            ORDER BY transaction_id, month DESC
+            """, nativeQuery = true)
+    List<TransactionLogCheckpoint> findLatestByTransactionIdIn(
+            @Param("transactionIds") Collection<UUID> transactionIds,
+            @Param("year") int year,
+            @Param("month") int month
+    );
+
+    List<TransactionLogCheckpoint> findAllByUserIdAndYearAndMonthLessThanEqual(UUID userId, int year, int month);
+
+    @Modifying
+    @Query("DELETE FROM TransactionLogCheckpoint c WHERE c.year = :year AND c.month = :month")
+    int deleteAllByPeriod(@Param("year") int year, @Param("month") int month);
+
+    @Modifying
+    @Query("DELETE FROM TransactionLogCheckpoint c WHERE c.year < :year")
+    int deleteAllByYearBefore(@Param("year") int year);
+
+    @Modifying
+    @Query("DELETE FROM TransactionLogCheckpoint c WHERE c.transactionId IN :transactionIds")
+    int deleteAllByTransactionIdIn(@Param("transactionIds") Collection<UUID> transactionIds);
+
+    @Modifying
+    @Query("DELETE FROM TransactionLogCheckpoint c WHERE c.userId = :userId")
+    int deleteAllByUserId(@Param("userId") UUID userId);
+}
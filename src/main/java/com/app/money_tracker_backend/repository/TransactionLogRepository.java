@@ -1,26 +1,152 @@
 package com.app.money_tracker_backend.repository;
 
+import com.app.money_tracker_backend.dto.LoggedTransaction;
+import com.app.money_tracker_backend.dto.TransactionLogEntry;
+import com.app.money_tracker_backend.dto.TransactionLogResponse;
 import com.app.money_tracker_backend.enums.TransactionType;
 import com.app.money_tracker_backend.model.Transaction;
 import com.app.money_tracker_backend.model.TransactionLog;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface TransactionLogRepository extends JpaRepository<TransactionLog, UUID> {
 
-    List<TransactionLog> findAllByUserIdOrderByCreatedAtDesc(UUID userId);
+    // Read endpoints select straight into the response DTO (see TransactionRepository)
+    @Query("""
+            SELECT new com.app.money_tracker_backend.dto.TransactionLogResponse(
+                l.id, l.transactionName, l.transactionType, l.amount, l.createdAt, l.bank.id, l.action)
+            FROM TransactionLog l
+            WHERE l.user.id = :userId
+            ORDER BY l.createdAt DESC, l.id DESC
+            """)
+    List<TransactionLogResponse> findResponsesByUserId(@Param("userId") UUID userId);
 
-    // Delete all logs by transaction id
-    void deleteAllByTransactionId(UUID transactionId);
+    // Keyset pagination on (createdAt, id): first page, then every page after a cursor
+    @Query("""
+            SELECT new com.app.money_tracker_backend.dto.TransactionLogResponse(
+                l.id, l.transactionName, l.transactionType, l.amount, l.createdAt, l.bank.id, l.action)
+            FROM TransactionLog l
+            WHERE l.user.id = :userId
+            ORDER BY l.createdAt DESC, l.id DESC
+            """)
+    List<TransactionLogResponse> findResponsePage(@Param("userId") UUID userId, Limit limit);
 
-    List<TransactionLog> findByTransactionIdInAndCreatedAtBetweenOrderByCreatedAtAsc(
-            List<UUID> transactionIds,
-            LocalDateTime start,
-            LocalDateTime end
+    @Query("""
+            SELECT new com.app.money_tracker_backend.dto.TransactionLogResponse(
+                l.id, l.transactionName, l.transactionType, l.amount, l.createdAt, l.bank.id, l.action)
+            FROM TransactionLog l
+            WHERE l.user.id = :userId
+              AND (l.createdAt < :createdAt OR (l.createdAt = :createdAt AND l.id < :id))
+            ORDER BY l.createdAt DESC, l.id DESC
+            """)
+    List<TransactionLogResponse> findResponsePageAfter(
+            @Param("userId") UUID userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Limit limit
+    );
+
+    // Must be consumed inside a transaction and closed by the caller
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT new com.app.money_tracker_backend.dto.TransactionLogResponse(
+                l.id, l.transactionName, l.transactionType, l.amount, l.createdAt, l.bank.id, l.action)
+            FROM TransactionLog l
+            WHERE l.user.id = :userId
+            ORDER BY l.createdAt DESC, l.id DESC
+            """)
+    Stream<TransactionLogResponse> streamResponsesByUserId(@Param("userId") UUID userId);
+
+    // Delete all logs of the given transactions in one statement
+    @Modifying
+    @Query("DELETE FROM TransactionLog l WHERE l.transactionId IN :transactionIds")
+    int deleteAllByTransactionIdIn(@Param("transactionIds") Collection<UUID> transactionIds);
+
+    // Streams a whole range of logs in one query, selecting only the replay columns.
+    // The range is half-open [start, end), see TimeBuckets.
+    // Must be consumed inside a transaction and closed by the caller.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            SELECT new com.app.money_tracker_backend.dto.TransactionLogEntry(
+                l.transactionId, l.action, l.amount, l.createdAt)
+            FROM TransactionLog l
+            WHERE l.transactionId IN :transactionIds
+              AND l.createdAt >= :start
+              AND l.createdAt < :end
+            ORDER BY l.createdAt ASC
+            """)
+    Stream<TransactionLogEntry> streamEntriesByTransactionIdInAndCreatedAtInRange(
+            @Param("transactionIds") List<UUID> transactionIds,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
+
+    // Whole log history of one user, oldest first (used to rebuild derived tables)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            SELECT new com.app.money_tracker_backend.dto.TransactionLogEntry(
+                l.transactionId, l.action, l.amount, l.createdAt)
+            FROM TransactionLog l
+            WHERE l.user.id = :userId
+              AND l.createdAt >= :from
+            ORDER BY l.createdAt ASC
+            """)
+    Stream<TransactionLogEntry> streamEntriesByUserIdFrom(
+            @Param("userId") UUID userId,
+            @Param("from") LocalDateTime from
+    );
+
+    // Next chunk of transactions with logs in the range, walking transaction ids (compaction)
+    @Query("""
+            SELECT DISTINCT new com.app.money_tracker_backend.dto.LoggedTransaction(l.transactionId, l.user.id)
+            FROM TransactionLog l
+            WHERE l.createdAt >= :start
+              AND l.createdAt < :end
+              AND l.transactionId > :after
+            ORDER BY l.transactionId
+            """)
+    List<LoggedTransaction> findLoggedTransactionsInRange(
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("after") UUID after,
+            Limit limit
+    );
+
+    // Same for the transactions of one user (recompaction after a time zone change)
+    @Query("""
+            SELECT DISTINCT new com.app.money_tracker_backend.dto.LoggedTransaction(l.transactionId, l.user.id)
+            FROM TransactionLog l
+            WHERE l.user.id = :userId
+              AND l.createdAt >= :start
+              AND l.createdAt < :end
+            ORDER BY l.transactionId
+            """)
+    List<LoggedTransaction> findLoggedTransactionsOfUserInRange(
+            @Param("userId") UUID userId,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
     );
 
     void deleteByUserId(UUID userId);
+
+    // The cold tier (transaction_logs_archive) is not mapped, purges reach it with plain SQL
+    @Modifying
+    @Query(value = "DELETE FROM transaction_logs_archive WHERE transaction_id IN (:transactionIds)", nativeQuery = true)
+    int deleteArchivedByTransactionIdIn(@Param("transactionIds") Collection<UUID> transactionIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM transaction_logs_archive WHERE user_id = :userId", nativeQuery = true)
+    int deleteArchivedByUserId(@Param("userId") UUID userId);
 }
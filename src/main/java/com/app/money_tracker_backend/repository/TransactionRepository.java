@@ -1,31 +1,148 @@
 package com.app.money_tracker_backend.repository;
 
+import com.app.money_tracker_backend.dto.DebitLogEntry;
+import com.app.money_tracker_backend.dto.TransactionResponse;
 import com.app.money_tracker_backend.enums.TransactionType;
 import com.app.money_tracker_backend.model.Transaction;
 import com.app.money_tracker_backend.model.TransactionLog;
 import com.app.money_tracker_backend.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
 
     List<Transaction> findAllByUserIdAndDeletedFalseOrderByUpdatedAtDesc(UUID userId);
 
+    // Read endpoints select straight into the response DTO: no managed entities, no dirty checking,
+    // and bankId comes from the bank_id column without touching the Bank proxy
+    @Query("""
+            SELECT new com.app.money_tracker_backend.dto.TransactionResponse(
+                t.id, t.transactionName, t.transactionType, t.amount, t.createdAt, t.updatedAt, t.bank.id)
+            FROM Transaction t
+            WHERE t.user.id = :userId
+              AND t.deleted = false
+            ORDER BY t.updatedAt DESC, t.id DESC
+            """)
+    List<TransactionResponse> findResponsesByUserId(@Param("userId") UUID userId);
 
-    @Modifying
-    @Transactional
-    @Query("UPDATE Transaction t SET t.amount = 0")
-    int resetAllTransactionAmounts();
+    // Keyset pagination on (updatedAt, id): first page, then every page after a cursor
+    @Query("""
+            SELECT new com.app.money_tracker_backend.dto.TransactionResponse(
+                t.id, t.transactionName, t.transactionType, t.amount, t.createdAt, t.updatedAt, t.bank.id)
+            FROM Transaction t
+            WHERE t.user.id = :userId
+              AND t.deleted = false
+            ORDER BY t.updatedAt DESC, t.id DESC
+            """)
+    List<TransactionResponse> findResponsePage(@Param("userId") UUID userId, Limit limit);
+
+    @Query("""
+            SELECT new com.app.money_tracker_backend.dto.TransactionResponse(
+                t.id, t.transactionName, t.transactionType, t.amount, t.createdAt, t.updatedAt, t.bank.id)
+            FROM Transaction t
+            WHERE t.user.id = :userId
+              AND t.deleted = false
+              AND (t.updatedAt < :updatedAt OR (t.updatedAt = :updatedAt AND t.id < :id))
+            ORDER BY t.updatedAt DESC, t.id DESC
+            """)
+    List<TransactionResponse> findResponsePageAfter(
+            @Param("userId") UUID userId,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("id") UUID id,
+            Limit limit
+    );
+
+    // Must be consumed inside a transaction and closed by the caller
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT new com.app.money_tracker_backend.dto.TransactionResponse(
+                t.id, t.transactionName, t.transactionType, t.amount, t.createdAt, t.updatedAt, t.bank.id)
+            FROM Transaction t
+            WHERE t.user.id = :userId
+              AND t.deleted = false
+            ORDER BY t.updatedAt DESC, t.id DESC
+            """)
+    Stream<TransactionResponse> streamResponsesByUserId(@Param("userId") UUID userId);
 
-    // Find deleted transactions older than the given date
-    List<Transaction> findAllByDeletedTrueAndUpdatedAtBefore(LocalDateTime dateTime);
+
+    // Locks every transaction of the user, in id order, until the caller's transaction ends:
+    // writes to them wait (rebuilds of derived tables)
+    @Query(value = "SELECT id FROM transactions WHERE user_id = :userId ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<UUID> lockAllByUserId(@Param("userId") UUID userId);
+
+    // Last attempt of a contended update / delete: with the row locked the version check cannot fail
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.id = :id")
+    Optional<Transaction> findByIdForUpdate(@Param("id") UUID id);
+
+    // Adds to the amount in one statement: the row lock serializes concurrent adds, none is lost,
+    // and RETURNING hands back the updated row without a read before or after
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "transactions"))
+    @Query(value = """
+            UPDATE transactions
+            SET amount = amount + :delta,
+                updated_at = :updatedAt,
+                version = version + 1
+            WHERE id = :id
+              AND user_id = :userId
+            RETURNING *
+            """, nativeQuery = true)
+    Optional<Transaction> addAmount(
+            @Param("id") UUID id,
+            @Param("userId") UUID userId,
+            @Param("delta") BigDecimal delta,
+            @Param("updatedAt") LocalDateTime updatedAt
+    );
+
+    // Next chunk of ids to reset, walking the primary key (served by the partial index on amount <> 0)
+    @Query("""
+            SELECT t.id FROM Transaction t
+            WHERE t.amount <> 0
+              AND t.id > :after
+            ORDER BY t.id
+            """)
+    List<UUID> findNonZeroAmountIdsAfter(@Param("after") UUID after, Limit limit);
+
+    // Zeroes the nonzero amounts of a chunk; RETURNING hands back the rows it wrote (new version, owner)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "transactions"))
+    @Query(value = """
+            UPDATE transactions
+            SET amount = 0,
+                version = version + 1
+            WHERE id IN (:ids)
+              AND amount <> 0
+            RETURNING *
+            """, nativeQuery = true)
+    List<Transaction> resetAmountsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Next chunk of purgeable ids (served by the partial index on deleted = true)
+    @Query("""
+            SELECT t.id FROM Transaction t
+            WHERE t.deleted = true
+              AND t.updatedAt < :cutoff
+            ORDER BY t.updatedAt, t.id
+            """)
+    List<UUID> findPurgeableIds(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM Transaction t WHERE t.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<UUID> ids);
 
     List<Transaction> findByUserIdAndTransactionTypeAndDeletedFalse(
             UUID userId,
@@ -34,6 +151,26 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
 
     List<Transaction> findAllByUserIdAndDeletedFalse(UUID userId);
 
+    // 🔹 Logs in the range of the user's current DEBIT transactions, oldest first. One statement,
+    // so the versions and the logs come from the same snapshot without a transaction around them
+    @Query("""
+            SELECT new com.app.money_tracker_backend.dto.DebitLogEntry(
+                t.id, t.version, t.transactionName, l.action, l.amount)
+            FROM Transaction t
+            JOIN TransactionLog l ON l.transactionId = t.id
+            WHERE t.user.id = :userId
+              AND t.transactionType = com.app.money_tracker_backend.enums.TransactionType.DEBIT
+              AND t.deleted = false
+              AND l.createdAt >= :start
+              AND l.createdAt < :end
+            ORDER BY l.createdAt ASC
+            """)
+    List<DebitLogEntry> findDebitLogsOfUserInRange(
+            @Param("userId") UUID userId,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
+    );
+
     void deleteByUserId(UUID userId);
 
 }
@@ -1,7 +1,10 @@
 package com.app.money_tracker_backend.repository;
 
+import com.app.money_tracker_backend.dto.UserTimeZone;
 import com.app.money_tracker_backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -9,4 +12,12 @@ import java.util.UUID;
 public interface UserRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findByEmail(String email);
+
+    // The zone setting alone, read from the database even when the user is in the persistence context
+    @Query("SELECT new com.app.money_tracker_backend.dto.UserTimeZone(u.timeZone, u.timeZoneVersion) FROM User u WHERE u.id = :id")
+    Optional<UserTimeZone> findTimeZoneById(@Param("id") UUID id);
+
+    // Locks the user's row against writes that insert rows for it (their FK check), until the caller's transaction ends
+    @Query(value = "SELECT * FROM users WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<User> findByIdForUpdate(@Param("id") UUID id);
 }
@@ -1,17 +1,18 @@
 package com.app.money_tracker_backend.service;
 
-import com.app.money_tracker_backend.config.SecurityUtil;
+import com.app.money_tracker_backend.dto.TimeZoneRequest;
 import com.app.money_tracker_backend.dto.UserProfileResponse;
-import com.app.money_tracker_backend.model.Bank;
 import com.app.money_tracker_backend.model.User;
-import com.app.money_tracker_backend.repository.BankRepository;
+import com.app.money_tracker_backend.repository.MonthlyTransactionAggregateRepository;
+import com.app.money_tracker_backend.repository.PendingTransactionLogRepository;
+import com.app.money_tracker_backend.repository.TransactionLogCheckpointRepository;
 import com.app.money_tracker_backend.repository.TransactionLogRepository;
 import com.app.money_tracker_backend.repository.TransactionRepository;
 import com.app.money_tracker_backend.repository.UserRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.time.ZoneId;
 import java.util.UUID;
 
 
@@ -20,45 +21,99 @@ import java.util.UUID;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final BankRepository bankRepository;
+    private final BankCatalog bankCatalog;
     private final TransactionLogRepository transactionLogRepository;
     private final TransactionRepository transactionRepository;
-
-
-    public AuthService(UserRepository userRepository,BankRepository bankRepository,TransactionLogRepository transactionLogRepository,TransactionRepository transactionRepository) {
+    private final MonthlyTransactionAggregateRepository monthlyAggregateRepository;
+    private final TransactionLogCheckpointRepository checkpointRepository;
+    private final PendingTransactionLogRepository pendingLogRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final TimeBuckets timeBuckets;
+    private final MonthlyTransactionAggregateService monthlyAggregateService;
+    private final TransactionLogCompactionService logCompaction;
+    private final TodaySpendCounter todaySpend;
+    private final TransactionLogWriter logWriter;
+
+
+    public AuthService(UserRepository userRepository,BankCatalog bankCatalog,TransactionLogRepository transactionLogRepository,TransactionRepository transactionRepository,MonthlyTransactionAggregateRepository monthlyAggregateRepository,TransactionLogCheckpointRepository checkpointRepository,PendingTransactionLogRepository pendingLogRepository,CurrentUserResolver currentUserResolver,TimeBuckets timeBuckets,MonthlyTransactionAggregateService monthlyAggregateService,TransactionLogCompactionService logCompaction,TodaySpendCounter todaySpend,TransactionLogWriter logWriter) {
         this.userRepository = userRepository;
-        this.bankRepository=bankRepository;
+        this.currentUserResolver=currentUserResolver;
+        this.bankCatalog=bankCatalog;
         this.transactionRepository=transactionRepository;
         this.transactionLogRepository=transactionLogRepository;
+        this.monthlyAggregateRepository=monthlyAggregateRepository;
+        this.checkpointRepository=checkpointRepository;
+        this.pendingLogRepository=pendingLogRepository;
+        this.timeBuckets=timeBuckets;
+        this.monthlyAggregateService=monthlyAggregateService;
+        this.logCompaction=logCompaction;
+        this.todaySpend=todaySpend;
+        this.logWriter=logWriter;
 
     }
 
     // 🔹 Get the currently logged-in user
     private User getCurrentUser() {
-        String email = SecurityUtil.getCurrentUserEmail();
-        return userRepository.findByEmail(email)
+        return userRepository.findById(currentUserResolver.getCurrentUserId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
-    public List<Bank> getAllBanks() {
-        return bankRepository.findAll();
+    // 🔹 Served from the in-memory catalog, never from the database
+    public BankCatalog.Snapshot getAllBanks() {
+        return bankCatalog.snapshot();
     }
 
 
 
     public UserProfileResponse getCurrentUserProfile() {
 
-        // 🔐 get email from security context
-        String email = SecurityUtil.getCurrentUserEmail();
+        User user = getCurrentUser();
+
+        return toProfile(user);
+    }
 
-        User user = userRepository.findByEmail(email)
+    // 🔹 Change the zone of the user's days and months.
+    // Monthly aggregates, checkpoints and today's counter were bucketed in the old zone, they are rebuilt with it.
+    // The user row stays locked until the rebuild commits, new transactions of the user wait for it;
+    // the version bump makes aggregate writes with the old zone cached on any node start over in the new one
+    @Transactional
+    public UserProfileResponse updateTimeZone(TimeZoneRequest request) {
+        if (request.getTimeZone() == null || request.getTimeZone().isBlank()) {
+            throw new IllegalArgumentException("Time zone is required");
+        }
+        ZoneId zone = TimeBuckets.parseZone(request.getTimeZone());
+
+        UUID userId = currentUserResolver.getCurrentUserId();
+        // moving the outbox inserts logs for the user, it cannot wait behind our own lock
+        logWriter.flushPending(userId);
+
+        // same order as rebuildForUser: the user's transactions, then the user row
+        transactionRepository.lockAllByUserId(userId);
+        User user = userRepository.findByIdForUpdate(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        if (zone.equals(timeBuckets.zoneOf(user))) {
+            return toProfile(user);
+        }
 
+        user.setTimeZone(zone.getId());
+        user.setTimeZoneVersion(user.getTimeZoneVersion() + 1);
+        userRepository.saveAndFlush(user);
+        timeBuckets.remember(user);
+
+        monthlyAggregateService.rebuildForUser(user.getId());
+        logCompaction.recompactUser(user.getId());
+        todaySpend.forget(user.getId());
+
+        return toProfile(user);
+    }
+
+    private static UserProfileResponse toProfile(User user) {
         return new UserProfileResponse(
                 user.getName(),
                 user.getEmail(),
                 user.getProfilePicture(),
-                user.getCreatedAt()
+                user.getCreatedAt(),
+                user.getTimeZone()
         );
     }
 
@@ -68,13 +123,22 @@ public class AuthService {
         User user = getCurrentUser();
         UUID userId = user.getId();
 
-        // 1️⃣ Delete all transaction logs
+        // 1️⃣ Delete all transaction logs (write-behind outbox first, then hot and archived)
+        pendingLogRepository.deleteAllByUserId(userId);
         transactionLogRepository.deleteByUserId(userId);
+        transactionLogRepository.deleteArchivedByUserId(userId);
+
+        // 2️⃣ Delete derived monthly aggregates and log checkpoints
+        monthlyAggregateRepository.deleteAllByUserId(userId);
+        checkpointRepository.deleteAllByUserId(userId);
 
-        // 2️⃣ Delete all transactions
+        // 3️⃣ Delete all transactions
         transactionRepository.deleteByUserId(userId);
 
-        // 3️⃣ Delete user
+        // 4️⃣ Delete user
         userRepository.delete(user);
+        currentUserResolver.evict(user.getEmail());
+        timeBuckets.forget(userId);
+        todaySpend.forget(userId);
     }
 }
@@ -0,0 +1,96 @@
+package com.app.money_tracker_backend.service;
+
+import com.app.money_tracker_backend.dto.BankResponse;
+import com.app.money_tracker_backend.model.Bank;
+import com.app.money_tracker_backend.repository.BankRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable in-memory copy of the banks table. Banks are a handful of rows that almost never change,
+ * so writes validate bank ids against this snapshot and /api/banks serves its pre-serialized JSON
+ * with an ETag, without touching the database.
+ */
+@Slf4j
+@Component
+public class BankCatalog {
+
+    // json and etag are computed once per load and shared by every request
+    public record Snapshot(Map<Integer, Bank> banksById, byte[] json, String etag) {}
+
+    private final BankRepository bankRepository;
+    private final JsonMapper jsonMapper;
+
+    private volatile Snapshot snapshot;
+
+    public BankCatalog(BankRepository bankRepository, JsonMapper jsonMapper) {
+        this.bankRepository = bankRepository;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @PostConstruct
+    @Scheduled(
+            fixedDelayString = "${spendify.banks.refresh-interval:PT15M}",
+            initialDelayString = "${spendify.banks.refresh-interval:PT15M}"
+    )
+    public void refresh() {
+        List<Bank> banks = bankRepository.findAll().stream()
+                .sorted(Comparator.comparing(Bank::getId))
+                .toList();
+
+        byte[] json = jsonMapper.writeValueAsBytes(
+                banks.stream().map(b -> new BankResponse(b.getId(), b.getBankName())).toList()
+        );
+
+        Snapshot current = snapshot;
+        if (current != null && Arrays.equals(current.json(), json)) {
+            return;
+        }
+
+        snapshot = new Snapshot(
+                banks.stream().collect(Collectors.toUnmodifiableMap(Bank::getId, Function.identity())),
+                json,
+                etag(json)
+        );
+        log.info("Bank catalog loaded: {} banks", banks.size());
+    }
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    public boolean contains(Integer bankId) {
+        if (snapshot.banksById().containsKey(bankId)) {
+            return true;
+        }
+
+        // a bank inserted since the last load: check once and pick it up
+        if (bankRepository.existsById(bankId)) {
+            refresh();
+            return true;
+        }
+        return false;
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
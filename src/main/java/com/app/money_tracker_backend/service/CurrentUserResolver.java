@@ -0,0 +1,106 @@
+package com.app.money_tracker_backend.service;
+
+import com.app.money_tracker_backend.config.SecurityUtil;
+import com.app.money_tracker_backend.model.User;
+import com.app.money_tracker_backend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Resolves the logged-in user's id without hitting the users table on every request.
+ * Lookup order: HTTP session attribute (set at login), then a bounded TTL cache keyed by email,
+ * then userRepository.findByEmail.
+ *
+ * A deleted account is evicted on the node that deletes it. Other nodes hold it in their cache and sessions,
+ * so the session attribute is good for one cache TTL too: then it is checked against the database again,
+ * and a deleted (or re-created) account stops resolving to its old id.
+ */
+@Component
+public class CurrentUserResolver {
+
+    public static final String SESSION_USER_ID = "SPENDIFY_USER_ID";
+
+    // The session attribute: the id and when it was read from the database
+    private record SessionUser(UUID userId, Instant resolvedAt) implements Serializable {}
+
+    private final UserRepository userRepository;
+    private final Cache<String, UUID> userIdsByEmail;
+    private final Duration ttl;
+
+    public CurrentUserResolver(
+            UserRepository userRepository,
+            @Value("${spendify.user-cache.max-size:10000}") long maxSize,
+            @Value("${spendify.user-cache.ttl:10m}") Duration ttl
+    ) {
+        this.userRepository = userRepository;
+        this.ttl = ttl;
+        this.userIdsByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // 🔹 Id of the currently logged-in user
+    public UUID getCurrentUserId() {
+        HttpSession session = currentSession();
+        Object attribute = session != null ? session.getAttribute(SESSION_USER_ID) : null;
+        if (attribute instanceof SessionUser user && user.resolvedAt().plus(ttl).isAfter(Instant.now())) {
+            return user.userId();
+        }
+
+        String email = SecurityUtil.getCurrentUserEmail();
+        // The session's id is due for a check: the cached id may be as old, both are read again
+        if (attribute != null) {
+            userIdsByEmail.invalidate(email);
+        }
+        UUID userId = userIdsByEmail.get(email, key ->
+                userRepository.findByEmail(key)
+                        .map(User::getId)
+                        .orElseThrow(() -> new RuntimeException("User not found"))
+        );
+
+        if (session != null) {
+            session.setAttribute(SESSION_USER_ID, new SessionUser(userId, Instant.now()));
+        }
+        return userId;
+    }
+
+    // 🔹 Lazy reference to the current user, enough for ownership checks and foreign keys (no SELECT)
+    public User getCurrentUserReference() {
+        return userRepository.getReferenceById(getCurrentUserId());
+    }
+
+    // Called right after login, when the user row is already at hand
+    public void remember(HttpSession session, User user) {
+        session.setAttribute(SESSION_USER_ID, new SessionUser(user.getId(), Instant.now()));
+        userIdsByEmail.put(user.getEmail(), user.getId());
+    }
+
+    // 🔹 The account is gone (deleted): drop the cached id and the current session's
+    public void evict(String email) {
+        userIdsByEmail.invalidate(email);
+        HttpSession session = currentSession();
+        if (session != null) {
+            session.removeAttribute(SESSION_USER_ID);
+        }
+    }
+
+    private HttpSession currentSession() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return servletAttributes.getRequest().getSession(false);
+        }
+        return null;
+    }
+}
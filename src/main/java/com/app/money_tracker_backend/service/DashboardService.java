@@ -0,0 +1,121 @@
+package com.app.money_tracker_backend.service;
+
+import com.app.money_tracker_backend.dto.*;
+import com.app.money_tracker_backend.enums.TransactionType;
+import com.app.money_tracker_backend.model.Transaction;
+import com.app.money_tracker_backend.repository.TransactionRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+// Composite dashboard: the transactions, pie, yearly summaries and credit/debit chart in one call.
+// The user's transactions and the year's per-month totals are loaded once and shared by every view;
+// the independent loads and the views run concurrently on the application task executor.
+@Service
+@Timed(value = "spendify.service", histogram = true)
+public class DashboardService {
+
+    private final TransactionService transactionService;
+    private final TodaySpendCounter todaySpend;
+    private final TransactionRepository transactionRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final TimeBuckets timeBuckets;
+    private final Executor executor;
+
+    public DashboardService(
+            TransactionService transactionService,
+            TodaySpendCounter todaySpend,
+            TransactionRepository transactionRepository,
+            CurrentUserResolver currentUserResolver,
+            TimeBuckets timeBuckets,
+            @Qualifier("applicationTaskExecutor") Executor executor
+    ) {
+        this.transactionService = transactionService;
+        this.todaySpend = todaySpend;
+        this.transactionRepository = transactionRepository;
+        this.currentUserResolver = currentUserResolver;
+        this.timeBuckets = timeBuckets;
+        this.executor = executor;
+    }
+
+    public DashboardResponse getDashboard(Integer year, Integer month, String pieType) {
+        // Resolved on the request thread, the session lives there
+        UUID userId = currentUserResolver.getCurrentUserId();
+        ZoneId zone = timeBuckets.zoneOf(userId);
+
+        LocalDate today = LocalDate.now(zone);
+        int dashboardYear = year != null ? year : today.getYear();
+        int pieMonth = month != null ? month : today.getMonthValue();
+        String type = pieType != null ? pieType : "MONTH";
+        TimeBuckets.Range window = TransactionService.spentWindow(zone, type, dashboardYear, pieMonth);
+
+        // 1️⃣ One query for all current transactions (credit + debit)
+        List<Transaction> transactions =
+                transactionRepository.findAllByUserIdAndDeletedFalseOrderByUpdatedAtDesc(userId);
+
+        List<Transaction> credit = ofType(transactions, TransactionType.CREDIT);
+        List<Transaction> debit = ofType(transactions, TransactionType.DEBIT);
+        List<UUID> transactionIds = transactions.stream().map(Transaction::getId).toList();
+
+        // 2️⃣ One year-wide load, shared by every monthly view (its own read-only transaction on the worker thread)
+        CompletableFuture<List<Map<UUID, BigDecimal>>> yearTotals = CompletableFuture.supplyAsync(
+                () -> transactionService.loadYearByMonth(userId, transactionIds, dashboardYear), executor
+        );
+
+        // A MONTH pie is one month of that year, TODAY is kept in memory; YEAR needs its own window
+        CompletableFuture<List<MonthlyTransactionSpentResponse>> spent = switch (type.toUpperCase()) {
+            case "MONTH" -> yearTotals.thenApplyAsync(
+                    totals -> TransactionService.spentFromMonthTotals(debit, totals.get(pieMonth - 1)), executor);
+            case "TODAY" -> CompletableFuture.supplyAsync(() -> todaySpend.spentToday(userId), executor);
+            default -> CompletableFuture.supplyAsync(
+                    () -> transactionService.spent(userId, zone, debit, type, dashboardYear, pieMonth, window), executor);
+        };
+
+        // 3️⃣ Build the views concurrently from the shared inputs
+        CompletableFuture<List<TransactionResponse>> transactionResponses = CompletableFuture.supplyAsync(
+                () -> transactions.stream().map(transactionService::toResponse).toList(), executor);
+        CompletableFuture<List<MonthlyTransactionSummaryResponse>> creditSummary = yearTotals.thenApplyAsync(
+                totals -> TransactionService.yearlySummary(credit, totals), executor);
+        CompletableFuture<List<MonthlyTransactionSummaryResponse>> debitSummary = yearTotals.thenApplyAsync(
+                totals -> TransactionService.yearlySummary(debit, totals), executor);
+        CompletableFuture<List<MonthlyTransactionAmountResponse>> creditDebit = yearTotals.thenApplyAsync(
+                totals -> TransactionService.yearlyCreditDebit(transactions, totals), executor);
+
+        return new DashboardResponse(
+                dashboardYear,
+                await(transactionResponses),
+                await(spent),
+                await(creditSummary),
+                await(debitSummary),
+                await(creditDebit)
+        );
+    }
+
+    private static List<Transaction> ofType(List<Transaction> transactions, TransactionType type) {
+        return transactions.stream()
+                .filter(tx -> tx.getTransactionType() == type)
+                .toList();
+    }
+
+    // Rethrow the original exception so the error looks the same as on the single endpoints
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
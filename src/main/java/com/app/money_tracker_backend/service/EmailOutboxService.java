@@ -0,0 +1,275 @@
+package com.app.money_tracker_backend.service;
+
+import com.app.money_tracker_backend.dto.OutboundEmailResponse;
+import com.app.money_tracker_backend.enums.EmailStatus;
+import com.app.money_tracker_backend.model.OutboundEmail;
+import com.app.money_tracker_backend.repository.OutboundEmailRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Outbox for /api/send-query.
+// Messages are stored first, then handed to a small worker pool through a bounded queue.
+// A worker drains up to batch-size messages and sends them in one SMTP session.
+// Failed messages are retried with exponential backoff, and a sweeper re-queues anything
+// due from the table (retries, restarts, expired worker leases).
+@Slf4j
+@Service
+public class EmailOutboxService {
+
+    private static final List<EmailStatus> PENDING = List.of(EmailStatus.QUEUED, EmailStatus.SENDING);
+
+    private final OutboundEmailRepository outboundEmailRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final CurrentUserResolver currentUserResolver;
+
+    private final BlockingQueue<UUID> queue;
+    private final int workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final String from;
+
+    private ExecutorService workerPool;
+    private volatile boolean running;
+
+    public EmailOutboxService(
+            OutboundEmailRepository outboundEmailRepository,
+            JavaMailSender mailSender,
+            TransactionTemplate transactionTemplate,
+            CurrentUserResolver currentUserResolver,
+            @Value("${spendify.mail.queue-capacity:1000}") int queueCapacity,
+            @Value("${spendify.mail.workers:2}") int workers,
+            @Value("${spendify.mail.batch-size:20}") int batchSize,
+            @Value("${spendify.mail.max-attempts:5}") int maxAttempts,
+            @Value("${spendify.mail.initial-backoff:PT30S}") Duration initialBackoff,
+            @Value("${spendify.mail.max-backoff:PT30M}") Duration maxBackoff,
+            @Value("${spendify.mail.lease:PT5M}") Duration lease,
+            @Value("${spendify.mail.from:}") String from
+    ) {
+        this.outboundEmailRepository = outboundEmailRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.currentUserResolver = currentUserResolver;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.from = from;
+    }
+
+    // 🔹 Stores the message and queues it for delivery, returns right away
+    public OutboundEmailResponse enqueue(String to, String subject, String body) {
+        return enqueue(currentUserResolver.getCurrentUserId(), to, subject, body);
+    }
+
+    public OutboundEmailResponse enqueue(UUID userId, String to, String subject, String body) {
+        if (!StringUtils.hasText(to) || subject == null || body == null) {
+            throw new IllegalArgumentException("to, subject and body are required");
+        }
+        if (queue.remainingCapacity() == 0) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Mail queue is full, try again later");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        OutboundEmail email = outboundEmailRepository.save(OutboundEmail.builder()
+                .userId(userId)
+                .recipient(to)
+                .subject(subject)
+                .body(body)
+                .status(EmailStatus.QUEUED)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+
+        // If the queue filled up meanwhile the sweeper picks the row up from the table
+        queue.offer(email.getId());
+        return OutboundEmailResponse.from(email);
+    }
+
+    // 🔹 Status of one of the current user's messages, someone else's id is reported as missing
+    public OutboundEmailResponse getStatus(UUID messageId) {
+        return getStatus(currentUserResolver.getCurrentUserId(), messageId);
+    }
+
+    public OutboundEmailResponse getStatus(UUID userId, UUID messageId) {
+        return outboundEmailRepository.findByIdAndUserId(messageId, userId)
+                .map(OutboundEmailResponse::from)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Email not found"));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWorkers() {
+        running = true;
+        workerPool = Executors.newFixedThreadPool(workers, Thread.ofPlatform().name("mail-worker-", 0).daemon().factory());
+        for (int i = 0; i < workers; i++) {
+            workerPool.submit(this::runWorker);
+        }
+        log.info("✅ Mail outbox started with {} workers", workers);
+    }
+
+    @PreDestroy
+    public void stopWorkers() {
+        running = false;
+        if (workerPool != null) {
+            workerPool.shutdownNow();
+        }
+    }
+
+    // 🔹 Re-queues due retries and messages left over from a restart or an expired lease
+    @Scheduled(
+            fixedDelayString = "${spendify.mail.sweep-interval:PT15S}",
+            initialDelayString = "${spendify.mail.sweep-interval:PT15S}"
+    )
+    public void sweep() {
+        int capacity = queue.remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+
+        List<UUID> due = outboundEmailRepository.findDueIds(PENDING, LocalDateTime.now(), Limit.of(capacity));
+        for (UUID id : due) {
+            if (!queue.offer(id)) {
+                break;
+            }
+        }
+    }
+
+    private void runWorker() {
+        List<UUID> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                UUID first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                deliver(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // The claimed rows stay SENDING until their lease runs out, then the sweeper retries them
+                log.error("❌ Mail worker failed on a batch of {}", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliver(List<UUID> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboundEmail> claimed = transactionTemplate.execute(
+                status -> outboundEmailRepository.claim(ids, now, now.plus(lease))
+        );
+        if (claimed == null || claimed.isEmpty()) {
+            return;
+        }
+
+        SimpleMailMessage[] messages = new SimpleMailMessage[claimed.size()];
+        for (int i = 0; i < claimed.size(); i++) {
+            messages[i] = toMessage(claimed.get(i));
+        }
+
+        // JavaMailSender sends an array over a single connection and reports failures per message
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failures.putAll(e.getFailedMessages());
+            if (failures.isEmpty()) {
+                failAll(messages, e, failures);
+            }
+        } catch (MailException e) {
+            failAll(messages, e, failures);
+        }
+
+        LocalDateTime finishedAt = LocalDateTime.now();
+        for (int i = 0; i < claimed.size(); i++) {
+            Exception failure = failures.get(messages[i]);
+            if (failure == null) {
+                markSent(claimed.get(i), finishedAt);
+            } else {
+                markFailed(claimed.get(i), failure, finishedAt);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> outboundEmailRepository.saveAll(claimed));
+    }
+
+    private SimpleMailMessage toMessage(OutboundEmail email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        if (StringUtils.hasText(from)) {
+            message.setFrom(from);
+        }
+        message.setTo(email.getRecipient());
+        message.setSubject(email.getSubject());
+        message.setText(email.getBody());
+        return message;
+    }
+
+    private void failAll(SimpleMailMessage[] messages, Exception e, Map<Object, Exception> failures) {
+        for (SimpleMailMessage message : messages) {
+            failures.put(message, e);
+        }
+    }
+
+    private void markSent(OutboundEmail email, LocalDateTime sentAt) {
+        email.setStatus(EmailStatus.SENT);
+        email.setSentAt(sentAt);
+        email.setLastError(null);
+    }
+
+    private void markFailed(OutboundEmail email, Exception failure, LocalDateTime failedAt) {
+        email.setLastError(StringUtils.truncate(String.valueOf(failure.getMessage()), 1000));
+
+        if (email.getAttempts() >= maxAttempts) {
+            email.setStatus(EmailStatus.FAILED);
+            log.warn("❌ Giving up on email {} after {} attempts: {}", email.getId(), email.getAttempts(), failure.getMessage());
+            return;
+        }
+
+        email.setStatus(EmailStatus.QUEUED);
+        email.setNextAttemptAt(failedAt.plus(backoff(email.getAttempts())));
+    }
+
+    // 30s, 1m, 2m, 4m ... capped at max-backoff
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
@@ -0,0 +1,143 @@
+package com.app.money_tracker_backend.service;
+
+import com.app.money_tracker_backend.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Responses of writes sent with an Idempotency-Key, so a retried request gets the first response back
+ * instead of running again. Keys are scoped per user and kept for spendify.idempotency.ttl.
+ * In memory, bounded by the size of the stored responses; with spendify.idempotency.database.enabled
+ * claims and responses also go to idempotency_keys, so a retry that lands on another node is caught too.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    public enum Outcome {
+        CLAIMED,        // first time: run the request, then complete() or release()
+        REPLAY,         // already answered: send back response
+        IN_PROGRESS,    // the first request is still running
+        MISMATCH        // the key was used for a different request
+    }
+
+    public record StoredResponse(int status, String contentType, byte[] body) {}
+
+    public record Claim(Outcome outcome, StoredResponse response) {
+
+        static Claim of(Outcome outcome) {
+            return new Claim(outcome, null);
+        }
+    }
+
+    // response is null while the first request is running
+    private record Entry(String fingerprint, StoredResponse response) {}
+
+    // key, fingerprint and object headers of an entry
+    private static final int ENTRY_OVERHEAD = 400;
+
+    private final IdempotencyRecordRepository repository;
+    private final Cache<String, Entry> entries;
+    private final Duration ttl;
+    private final Duration lease;
+    private final boolean database;
+
+    public IdempotencyStore(
+            IdempotencyRecordRepository repository,
+            @Value("${spendify.idempotency.ttl:PT24H}") Duration ttl,
+            @Value("${spendify.idempotency.max-size:64MB}") DataSize maxSize,
+            @Value("${spendify.idempotency.lease:PT1M}") Duration lease,
+            @Value("${spendify.idempotency.database.enabled:false}") boolean database
+    ) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.database = database;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, Entry entry) ->
+                        ENTRY_OVERHEAD + (entry.response() == null ? 0 : entry.response().body().length))
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // 🔹 Decide what to do with a request carrying this key
+    public Claim claim(String key, String fingerprint) {
+        Entry cached = entries.getIfPresent(key);
+        if (cached != null && cached.response() != null) {
+            return answered(cached, fingerprint);
+        }
+
+        if (!database) {
+            Entry previous = entries.asMap().putIfAbsent(key, new Entry(fingerprint, null));
+            if (previous == null) {
+                return Claim.of(Outcome.CLAIMED);
+            }
+            return previous.response() == null ? Claim.of(Outcome.IN_PROGRESS) : answered(previous, fingerprint);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (repository.claim(key, fingerprint, now, now.plus(ttl), now.minus(lease)) == 1) {
+            return Claim.of(Outcome.CLAIMED);
+        }
+
+        // held by another request; gone in between means it failed and was released, the client retries
+        return repository.findById(key)
+                .map(record -> {
+                    if (record.getStatus() == null) {
+                        return Claim.of(Outcome.IN_PROGRESS);
+                    }
+                    Entry entry = new Entry(
+                            record.getFingerprint(),
+                            new StoredResponse(record.getStatus(), record.getContentType(), record.getBody())
+                    );
+                    entries.put(key, entry);
+                    return answered(entry, fingerprint);
+                })
+                .orElse(Claim.of(Outcome.IN_PROGRESS));
+    }
+
+    // 🔹 The claimed request succeeded: keep its response for the retries
+    public void complete(String key, String fingerprint, StoredResponse response) {
+        entries.put(key, new Entry(fingerprint, response));
+        if (database) {
+            repository.complete(key, response.status(), response.contentType(), response.body());
+        }
+    }
+
+    // 🔹 The claimed request failed: forget the key so a retry runs again
+    public void release(String key) {
+        entries.asMap().computeIfPresent(key, (k, entry) -> entry.response() == null ? null : entry);
+        if (database) {
+            repository.release(key);
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${spendify.idempotency.purge-interval:PT1H}",
+            initialDelayString = "${spendify.idempotency.purge-interval:PT1H}"
+    )
+    public void purgeExpired() {
+        if (!database) {
+            return;
+        }
+        int removed = repository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) {
+            log.info("Idempotency keys purged: {}", removed);
+        }
+    }
+
+    private static Claim answered(Entry entry, String fingerprint) {
+        return entry.fingerprint().equals(fingerprint)
+                ? new Claim(Outcome.REPLAY, entry.response())
+                : Claim.of(Outcome.MISMATCH);
+    }
+}
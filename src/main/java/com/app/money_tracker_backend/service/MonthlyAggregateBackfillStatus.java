@@ -0,0 +1,39 @@
+package com.app.money_tracker_backend.service;
+
+import com.app.money_tracker_backend.model.MaintenanceJob;
+import com.app.money_tracker_backend.repository.MaintenanceJobRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Whether monthly_transaction_aggregates holds every month: MonthlyTransactionAggregateBackfill has completed,
+ * or there was nothing to backfill (V15__maintenance_jobs.sql). Analytics read the aggregates, and old months
+ * are archived, only once it has.
+ */
+@Component
+public class MonthlyAggregateBackfillStatus {
+
+    static final String JOB = "monthly-aggregates.backfill";
+
+    private final MaintenanceJobRepository maintenanceJobRepository;
+
+    // once completed it stays completed, only the "not yet" answer is asked again
+    private volatile boolean completed;
+
+    public MonthlyAggregateBackfillStatus(MaintenanceJobRepository maintenanceJobRepository) {
+        this.maintenanceJobRepository = maintenanceJobRepository;
+    }
+
+    public boolean isCompleted() {
+        if (!completed) {
+            completed = maintenanceJobRepository.existsById(JOB);
+        }
+        return completed;
+    }
+
+    public void markCompleted() {
+        maintenanceJobRepository.save(new MaintenanceJob(JOB, LocalDateTime.now()));
+        completed = true;
+    }
+}
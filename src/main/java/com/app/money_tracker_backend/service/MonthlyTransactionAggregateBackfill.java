@@ -0,0 +1,62 @@
+package com.app.money_tracker_backend.service;
+
+import com.app.money_tracker_backend.model.User;
+import com.app.money_tracker_backend.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-off job that rebuilds monthly_transaction_aggregates from transaction_logs.
+ * Enable it for a single start-up with spendify.analytics.monthly-aggregates.backfill=true,
+ * each user is rebuilt in its own transaction so a failed run can simply be restarted.
+ * A completed run is recorded (MonthlyAggregateBackfillStatus): analytics read the table only after that,
+ * for archived months and with spendify.analytics.monthly-aggregates.enabled=true, and months are archived only then.
+ */
+@Slf4j
+@Component
+public class MonthlyTransactionAggregateBackfill implements ApplicationRunner {
+
+    private final UserRepository userRepository;
+    private final MonthlyTransactionAggregateService aggregateService;
+    private final MonthlyAggregateBackfillStatus backfillStatus;
+    private final TransactionLogWriter logWriter;
+
+    @Value("${spendify.analytics.monthly-aggregates.backfill:false}")
+    private boolean enabled;
+
+    public MonthlyTransactionAggregateBackfill(
+            UserRepository userRepository,
+            MonthlyTransactionAggregateService aggregateService,
+            MonthlyAggregateBackfillStatus backfillStatus,
+            TransactionLogWriter logWriter
+    ) {
+        this.userRepository = userRepository;
+        this.aggregateService = aggregateService;
+        this.backfillStatus = backfillStatus;
+        this.logWriter = logWriter;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        int users = 0;
+        int rows = 0;
+
+        for (User user : userRepository.findAll()) {
+            logWriter.flushPending(user.getId());
+            rows += aggregateService.rebuildForUser(user.getId());
+            users++;
+        }
+        backfillStatus.markCompleted();
+
+        log.info("✅ Monthly aggregate backfill completed. Users: {}, rows: {}, took {} ms",
+                users, rows, System.currentTimeMillis() - startedAt);
+    }
+}
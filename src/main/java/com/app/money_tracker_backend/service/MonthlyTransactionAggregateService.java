@@ -0,0 +1,202 @@
+package com.app.money_tracker_backend.service;
+
+import com.app.money_tracker_backend.dto.TransactionLogEntry;
+import com.app.money_tracker_backend.enums.LogAction;
+import com.app.money_tracker_backend.model.MonthlyTransactionAggregate;
+import com.app.money_tracker_backend.model.TransactionLog;
+import com.app.money_tracker_backend.repository.MonthlyTransactionAggregateRepository;
+import com.app.money_tracker_backend.repository.PendingTransactionLogRepository;
+import com.app.money_tracker_backend.repository.TransactionLogRepository;
+import com.app.money_tracker_backend.repository.TransactionRepository;
+import com.app.money_tracker_backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class MonthlyTransactionAggregateService {
+
+    private final MonthlyTransactionAggregateRepository aggregateRepository;
+    private final TransactionLogRepository transactionLogRepository;
+    private final PendingTransactionLogRepository pendingLogRepository;
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final TransactionLogArchiveService logArchive;
+    private final TimeBuckets timeBuckets;
+
+    private record PeriodKey(UUID transactionId, int year, int month) {}
+
+    // 🔹 Fold a freshly written log into its month's aggregate (runs inside the caller's write).
+    // A single upsert, so the write path never reads the aggregate row.
+    // Months are the user's (TimeBuckets), like the windows the aggregates stand in for. The zone comes from
+    // the per-node cache and the upsert checks its version: after a change made on another node nothing is
+    // written, the zone is read again and the upsert repeated in the new one.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(TransactionLog log) {
+        UUID userId = log.getUser().getId();
+        TimeBuckets.UserZone zone = timeBuckets.userZoneOf(userId);
+
+        while (upsert(log, zone) == 0) {
+            TimeBuckets.UserZone current = timeBuckets.reloadZoneOf(userId);
+            if (current.version() == zone.version()) {
+                return; // the month's aggregate is deleted, the log is ignored
+            }
+            zone = current;
+        }
+    }
+
+    private int upsert(TransactionLog log, TimeBuckets.UserZone zone) {
+        LocalDateTime createdAt = log.getCreatedAt();
+        LogAction action = log.getAction();
+        YearMonth month = TimeBuckets.monthOf(createdAt, zone.zone());
+
+        return aggregateRepository.upsert(
+                UUID.randomUUID(),
+                log.getUser().getId(),
+                log.getTransactionId(),
+                month.getYear(),
+                month.getMonthValue(),
+                action.fold(null, log.getAmount()),
+                action == LogAction.DELETED,
+                action == LogAction.ADDED,
+                action.setsTotal(),
+                createdAt,
+                zone.version()
+        );
+    }
+
+    // 🔹 Creation logs of brand-new transactions: nothing to merge with, so plain (batched) inserts.
+    // The caller has flushed the new transactions: their FK check holds the user row against a zone change
+    // (AuthService.updateTimeZone) until commit, so the zone read once per user stays valid.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyCreated(List<TransactionLog> creationLogs) {
+        Map<UUID, ZoneId> zones = new HashMap<>();
+        List<MonthlyTransactionAggregate> aggregates = creationLogs.stream()
+                .map(log -> {
+                    UUID userId = log.getUser().getId();
+                    ZoneId zone = zones.computeIfAbsent(userId, id -> timeBuckets.reloadZoneOf(id).zone());
+                    MonthlyTransactionAggregate aggregate = newAggregate(
+                            userId,
+                            log.getTransactionId(),
+                            TimeBuckets.monthOf(log.getCreatedAt(), zone),
+                            log.getCreatedAt()
+                    );
+                    fold(aggregate, log.getAction(), log.getAmount(), log.getCreatedAt());
+                    return aggregate;
+                })
+                .toList();
+
+        aggregateRepository.saveAll(aggregates);
+    }
+
+    // 🔹 Rebuild the aggregates of one user from the log history.
+    // Archived months no longer have their logs in transaction_logs, their aggregates are kept as they are;
+    // so is a month of the user that starts before the archive boundary (its zone differs from UTC).
+    // The rows are deleted and inserted again, so the user's writes wait until the rebuild commits:
+    // its transactions are locked (updates, add-amount, deletes), then the user row (creations, their FK check).
+    // Logs still in the write-behind outbox are folded in with the others.
+    @Transactional
+    public int rebuildForUser(UUID userId) {
+
+        transactionRepository.lockAllByUserId(userId);
+        userRepository.findByIdForUpdate(userId);
+
+        ZoneId zone = timeBuckets.reloadZoneOf(userId).zone();
+        LocalDateTime archivedUntil = logArchive.archivedUntil();
+        YearMonth from = TimeBuckets.monthOf(archivedUntil, zone);
+        if (TimeBuckets.month(from, zone).start().isBefore(archivedUntil)) {
+            from = from.plusMonths(1);
+        }
+        aggregateRepository.deleteAllByUserIdFrom(userId, from.getYear(), from.getMonthValue());
+
+        Map<PeriodKey, MonthlyTransactionAggregate> aggregates = new LinkedHashMap<>();
+        LocalDateTime start = TimeBuckets.month(from, zone).start();
+        Iterator<TransactionLogEntry> pending = pendingLogRepository.findEntriesByUserIdFrom(userId, start).iterator();
+        TransactionLogEntry nextPending = pending.hasNext() ? pending.next() : null;
+
+        try (Stream<TransactionLogEntry> logs = transactionLogRepository.streamEntriesByUserIdFrom(userId, start)) {
+            for (TransactionLogEntry log : (Iterable<TransactionLogEntry>) logs::iterator) {
+                // both are ordered by created_at, pending logs go in where they belong
+                while (nextPending != null && nextPending.createdAt().isBefore(log.createdAt())) {
+                    fold(aggregates, userId, zone, nextPending);
+                    nextPending = pending.hasNext() ? pending.next() : null;
+                }
+                fold(aggregates, userId, zone, log);
+            }
+        }
+        while (nextPending != null) {
+            fold(aggregates, userId, zone, nextPending);
+            nextPending = pending.hasNext() ? pending.next() : null;
+        }
+
+        aggregateRepository.saveAll(aggregates.values());
+        return aggregates.size();
+    }
+
+    private void fold(
+            Map<PeriodKey, MonthlyTransactionAggregate> aggregates,
+            UUID userId,
+            ZoneId zone,
+            TransactionLogEntry log
+    ) {
+        LocalDateTime createdAt = log.createdAt();
+        YearMonth month = TimeBuckets.monthOf(createdAt, zone);
+        PeriodKey key = new PeriodKey(
+                log.transactionId(),
+                month.getYear(),
+                month.getMonthValue()
+        );
+
+        MonthlyTransactionAggregate aggregate = aggregates.computeIfAbsent(
+                key,
+                k -> newAggregate(userId, k.transactionId(), month, createdAt)
+        );
+        fold(aggregate, log.action(), log.amount(), createdAt);
+    }
+
+    private MonthlyTransactionAggregate newAggregate(
+            UUID userId,
+            UUID transactionId,
+            YearMonth month,
+            LocalDateTime createdAt
+    ) {
+        return MonthlyTransactionAggregate.builder()
+                .userId(userId)
+                .transactionId(transactionId)
+                .year(month.getYear())
+                .month(month.getMonthValue())
+                .deleted(false)
+                .updatedAt(createdAt)
+                .build();
+    }
+
+    // Same rules as TransactionLogReplay and the upsert; returns false when the log is ignored
+    private boolean fold(
+            MonthlyTransactionAggregate aggregate,
+            LogAction action,
+            BigDecimal amount,
+            LocalDateTime createdAt
+    ) {
+        if (aggregate.isDeleted()) return false;
+
+        aggregate.setAmount(action.fold(aggregate.getAmount(), amount));
+        aggregate.setDeleted(action == LogAction.DELETED);
+        aggregate.setAbsolute(aggregate.isAbsolute() || action.setsTotal());
+        aggregate.setUpdatedAt(createdAt);
+        return true;
+    }
+}
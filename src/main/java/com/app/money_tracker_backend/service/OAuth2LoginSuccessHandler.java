@@ -20,9 +20,11 @@ public class OAuth2LoginSuccessHandler implements AuthenticationSuccessHandler {
     private String frontendUrl;
 
     private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
-    public OAuth2LoginSuccessHandler(UserRepository userRepository) {
+    public OAuth2LoginSuccessHandler(UserRepository userRepository, CurrentUserResolver currentUserResolver) {
         this.userRepository = userRepository;
+        this.currentUserResolver = currentUserResolver;
     }
 
     @Override
@@ -39,14 +41,17 @@ public class OAuth2LoginSuccessHandler implements AuthenticationSuccessHandler {
         String picture = oauthUser.getAttribute("picture");
 
         // save user if not exists
-        userRepository.findByEmail(email).orElseGet(() -> {
-            User user = new User();
-            user.setEmail(email);
-            user.setName(name);
-            user.setProfilePicture(picture);
-            return userRepository.save(user);
+        User user = userRepository.findByEmail(email).orElseGet(() -> {
+            User newUser = new User();
+            newUser.setEmail(email);
+            newUser.setName(name);
+            newUser.setProfilePicture(picture);
+            return userRepository.save(newUser);
         });
 
+        // keep the user id in the session so API calls don't look it up again
+        currentUserResolver.remember(request.getSession(), user);
+
         // redirect to frontend after login
         response.sendRedirect(frontendUrl + "/dashboard");
     }
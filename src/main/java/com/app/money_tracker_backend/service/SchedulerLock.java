@@ -0,0 +1,50 @@
+package com.app.money_tracker_backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Cluster-wide lock for scheduled jobs, so only one instance runs a job at a time.
+// Backed by a Postgres session-level advisory lock held on a dedicated connection:
+// it is released when the job finishes, or by the server if the node dies mid-run.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchedulerLock {
+
+    private final DataSource dataSource;
+
+    // 🔹 Runs the task if the named lock is free, returns false if another instance holds it
+    public boolean runExclusively(String lockName, Runnable task) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!call(connection, "SELECT pg_try_advisory_lock(hashtext(?))", lockName)) {
+                log.info("⏭️ Skipping {}: lock is held by another instance", lockName);
+                return false;
+            }
+
+            try {
+                task.run();
+                return true;
+            } finally {
+                call(connection, "SELECT pg_advisory_unlock(hashtext(?))", lockName);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Scheduler lock failed: " + lockName, e);
+        }
+    }
+
+    private boolean call(Connection connection, String sql, String lockName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, lockName);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+}
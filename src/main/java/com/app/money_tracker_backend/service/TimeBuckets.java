@@ -0,0 +1,205 @@
+package com.app.money_tracker_backend.service;
+
+import com.app.money_tracker_backend.dto.UserTimeZone;
+import com.app.money_tracker_backend.model.User;
+import com.app.money_tracker_backend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Days, months and years of a user as created_at ranges, shared by every analytics path
+ * (pies, yearly rollups, monthly aggregates, checkpoints, the TODAY counter).
+ *
+ * A bucket starts at midnight in the user's time zone (users.time_zone, spendify.time.default-zone when
+ * not set) and is half-open, [start, end): the next bucket starts exactly where it ends, so no log falls
+ * between two months or into both. Bounds are expressed like the created_at values themselves, local
+ * time of the application zone (Hibernate turns them into UTC, hibernate.jdbc.time_zone), so queries
+ * compare created_at with plain >= / < and the (…, created_at) indexes serve the range.
+ */
+@Component
+public class TimeBuckets {
+
+    // Zone of the LocalDateTime.now() values written to created_at
+    private static final ZoneId APPLICATION_ZONE = ZoneId.systemDefault();
+
+    // 🔹 [start, end) in created_at terms
+    public record Range(LocalDateTime start, LocalDateTime end) {}
+
+    // 🔹 A user's zone with users.time_zone_version, which every zone change bumps
+    public record UserZone(ZoneId zone, int version) {}
+
+    // 🔹 The twelve months of one year in one zone
+    public static final class YearBuckets {
+
+        // bounds[m - 1] = start of month m, bounds[12] = start of the next year
+        private final LocalDateTime[] bounds = new LocalDateTime[13];
+
+        private YearBuckets(int year, ZoneId zone) {
+            for (int month = 0; month <= 12; month++) {
+                bounds[month] = startOf(LocalDate.of(year, 1, 1).plusMonths(month), zone);
+            }
+        }
+
+        public Range all() {
+            return new Range(bounds[0], bounds[12]);
+        }
+
+        public Range month(int month) {
+            return new Range(bounds[month - 1], bounds[month]);
+        }
+
+        // From the start of month to the end of the year (13 = empty, at the end of the year)
+        public Range from(int month) {
+            return new Range(bounds[month - 1], bounds[12]);
+        }
+
+        // Month (1-12) of a created_at value, 0 outside the year
+        public int monthOf(LocalDateTime createdAt) {
+            if (createdAt.isBefore(bounds[0]) || !createdAt.isBefore(bounds[12])) {
+                return 0;
+            }
+            int month = 1;
+            while (!createdAt.isBefore(bounds[month])) {
+                month++;
+            }
+            return month;
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final ZoneId defaultZone;
+    private final ZoneId storageZone;
+    private final Cache<UUID, UserZone> zones;
+
+    public TimeBuckets(
+            UserRepository userRepository,
+            @Value("${spendify.time.default-zone:Asia/Kolkata}") String defaultZone,
+            @Value("${spring.jpa.properties.hibernate.jdbc.time_zone:}") String storageZone,
+            @Value("${spendify.user-cache.max-size:10000}") long maxSize,
+            @Value("${spendify.user-cache.ttl:10m}") Duration ttl
+    ) {
+        this.userRepository = userRepository;
+        this.defaultZone = parseZone(defaultZone);
+        this.storageZone = storageZone.isBlank() ? APPLICATION_ZONE : parseZone(storageZone);
+        this.zones = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // 🔹 Time zone of a user's buckets
+    public ZoneId zoneOf(UUID userId) {
+        return userZoneOf(userId).zone();
+    }
+
+    // 🔹 Same with its version. Writes that store buckets (monthly aggregates) check the version in the
+    // statement itself and reload on a mismatch: the zone changed on another node since it was cached
+    public UserZone userZoneOf(UUID userId) {
+        return zones.get(userId, this::loadZone);
+    }
+
+    public UserZone reloadZoneOf(UUID userId) {
+        UserZone zone = loadZone(userId);
+        zones.put(userId, zone);
+        return zone;
+    }
+
+    private UserZone loadZone(UUID userId) {
+        return userRepository.findTimeZoneById(userId)
+                .map(setting -> new UserZone(zoneOf(setting.timeZone()), setting.timeZoneVersion()))
+                .orElse(new UserZone(defaultZone, 0));
+    }
+
+    // Same for many users, one query for the ones not cached
+    public Map<UUID, ZoneId> zonesOf(Collection<UUID> userIds) {
+        Set<UUID> distinct = new HashSet<>(userIds);
+        Map<UUID, ZoneId> result = new HashMap<>();
+        zones.getAllPresent(distinct).forEach((userId, zone) -> result.put(userId, zone.zone()));
+        distinct.removeAll(result.keySet());
+
+        if (!distinct.isEmpty()) {
+            for (User user : userRepository.findAllById(distinct)) {
+                remember(user);
+                result.put(user.getId(), zoneOf(user));
+            }
+            distinct.forEach(userId -> result.putIfAbsent(userId, defaultZone));
+        }
+        return result;
+    }
+
+    // Called when the user's setting changes
+    public void remember(User user) {
+        zones.put(user.getId(), new UserZone(zoneOf(user), user.getTimeZoneVersion()));
+    }
+
+    public void forget(UUID userId) {
+        zones.invalidate(userId);
+    }
+
+    public ZoneId zoneOf(User user) {
+        return zoneOf(user.getTimeZone());
+    }
+
+    private ZoneId zoneOf(String timeZone) {
+        return timeZone == null ? defaultZone : parseZone(timeZone);
+    }
+
+    // 🔹 The current month of the stored created_at values (transaction_logs partitions are cut on it)
+    public YearMonth storageMonth() {
+        return YearMonth.now(storageZone);
+    }
+
+    // Start of a stored month, as a created_at value
+    public LocalDateTime storageMonthStart(YearMonth month) {
+        return startOf(month.atDay(1), storageZone);
+    }
+
+    public static ZoneId parseZone(String zone) {
+        try {
+            return ZoneId.of(zone);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Unknown time zone: " + zone);
+        }
+    }
+
+    // 🔹 Midnight of a day in a zone, as a created_at value
+    public static LocalDateTime startOf(LocalDate day, ZoneId zone) {
+        return day.atStartOfDay(zone).withZoneSameInstant(APPLICATION_ZONE).toLocalDateTime();
+    }
+
+    public static Range day(LocalDate day, ZoneId zone) {
+        return new Range(startOf(day, zone), startOf(day.plusDays(1), zone));
+    }
+
+    public static Range month(YearMonth month, ZoneId zone) {
+        return new Range(startOf(month.atDay(1), zone), startOf(month.plusMonths(1).atDay(1), zone));
+    }
+
+    public static YearBuckets year(int year, ZoneId zone) {
+        return new YearBuckets(year, zone);
+    }
+
+    // 🔹 Day and month a created_at value falls in, seen from a zone
+    public static LocalDate dayOf(LocalDateTime createdAt, ZoneId zone) {
+        return createdAt.atZone(APPLICATION_ZONE).withZoneSameInstant(zone).toLocalDate();
+    }
+
+    public static YearMonth monthOf(LocalDateTime createdAt, ZoneId zone) {
+        return YearMonth.from(dayOf(createdAt, zone));
+    }
+}
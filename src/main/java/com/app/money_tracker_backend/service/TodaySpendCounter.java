@@ -0,0 +1,260 @@
+package com.app.money_tracker_backend.service;
+
+import com.app.money_tracker_backend.dto.DebitLogEntry;
+import com.app.money_tracker_backend.dto.MonthlyTransactionSpentResponse;
+import com.app.money_tracker_backend.enums.LogAction;
+import com.app.money_tracker_backend.enums.TransactionType;
+import com.app.money_tracker_backend.model.Transaction;
+import com.app.money_tracker_backend.model.TransactionLog;
+import com.app.money_tracker_backend.repository.TransactionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The TODAY pie served from memory. Per user and day it keeps what the log replay of the day would give:
+ * the running total of every current DEBIT transaction logged that day. Built from the database on the first
+ * read of the day (only today's logs of current DEBIT rows), then kept current by the writes of
+ * TransactionService, applied once they commit. Days are the user's (TimeBuckets), a new day is a new entry.
+ *
+ * Writes are applied in version order (Transaction.version): one already held is skipped. An add that cannot
+ * be placed (the write before it is missing, or it adds to a transaction the day does not hold) drops the day,
+ * the next read builds it again. The amount reset bumps versions without changing today's spend, it is recorded
+ * too (recordReset) so the next add still fits.
+ *
+ * A node only sees its own writes: a day is built again after spendify.today-spend.ttl at the latest,
+ * which bounds how long a write made on another node is missing.
+ */
+@Component
+public class TodaySpendCounter {
+
+    private record Key(UUID userId, LocalDate day) {}
+
+    // One committed write, as seen by the counter
+    private record Change(
+            UUID userId,
+            LocalDate day,
+            UUID transactionId,
+            long version,
+            String name,
+            boolean counted,
+            LogAction action,
+            BigDecimal amount
+    ) {}
+
+    private static final class Tracked {
+        long version;
+        String name;
+        boolean counted;    // a current DEBIT transaction
+        BigDecimal total;   // today's replayed total (null = no log today)
+    }
+
+    private static final class Day {
+        // a ReentrantLock, not synchronized: the build reads the database and virtual threads must not pin
+        final ReentrantLock lock = new ReentrantLock();
+        boolean built;
+        final Map<UUID, Tracked> transactions = new HashMap<>();
+
+        // false when the change cannot be placed (an add whose previous total is not held)
+        boolean apply(Change change) {
+            Tracked tracked = transactions.get(change.transactionId());
+
+            // not logged today when the day was built: created/updated set the total, an add needs the old one
+            if (tracked == null) {
+                if (!change.counted()) {
+                    return true;
+                }
+                if (!change.action().setsTotal()) {
+                    return false;
+                }
+                tracked = new Tracked();
+                transactions.put(change.transactionId(), tracked);
+            } else if (change.version() <= tracked.version) {
+                return true;
+            } else if (change.version() != tracked.version + 1 && !change.action().setsTotal()) {
+                return false;
+            }
+
+            tracked.version = change.version();
+            tracked.name = change.name();
+            tracked.counted = change.counted();
+            tracked.total = change.counted() ? change.action().fold(tracked.total, change.amount()) : null;
+            return true;
+        }
+    }
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionLogWriter logWriter;
+    private final TimeBuckets timeBuckets;
+    private final Cache<Key, Day> days;
+
+    public TodaySpendCounter(
+            TransactionRepository transactionRepository,
+            TransactionLogWriter logWriter,
+            TimeBuckets timeBuckets,
+            @Value("${spendify.today-spend.max-users:100000}") long maxUsers,
+            @Value("${spendify.today-spend.ttl:PT1M}") Duration ttl
+    ) {
+        this.transactionRepository = transactionRepository;
+        this.logWriter = logWriter;
+        this.timeBuckets = timeBuckets;
+        this.days = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // 🔹 Spent per DEBIT transaction today, same result as the TODAY log replay.
+    // Call it outside a transaction: a miss reads the database, no connection should be held around it
+    public List<MonthlyTransactionSpentResponse> spentToday(UUID userId) {
+        ZoneId zone = timeBuckets.zoneOf(userId);
+        LocalDate today = LocalDate.now(zone);
+        Day day = days.get(new Key(userId, today), key -> new Day());
+
+        day.lock.lock();
+        try {
+            if (!day.built) {
+                build(userId, TimeBuckets.day(today, zone), day);
+            }
+
+            List<MonthlyTransactionSpentResponse> response = new ArrayList<>();
+            day.transactions.forEach((transactionId, tracked) -> {
+                if (tracked.counted && tracked.total != null) {
+                    response.add(new MonthlyTransactionSpentResponse(transactionId, tracked.name, tracked.total));
+                }
+            });
+            return response;
+        } finally {
+            day.lock.unlock();
+        }
+    }
+
+    // 🔹 Called by the write methods with the transaction as written and its log, applied after the commit
+    public void record(Transaction tx, TransactionLog log) {
+        UUID userId = tx.getUser().getId();
+        Change change = new Change(
+                userId,
+                TimeBuckets.dayOf(log.getCreatedAt(), timeBuckets.zoneOf(userId)),
+                tx.getId(),
+                tx.getVersion(),
+                tx.getTransactionName(),
+                isCurrentDebit(tx),
+                log.getAction(),
+                log.getAmount()
+        );
+        afterCommit(() -> apply(change));
+    }
+
+    // 🔹 Called by the amount reset with the rows it zeroed: no log, only their versions move on
+    public void recordReset(List<Transaction> reset) {
+        if (reset.isEmpty()) {
+            return;
+        }
+        Map<UUID, ZoneId> zones = timeBuckets.zonesOf(reset.stream().map(tx -> tx.getUser().getId()).toList());
+        List<Change> changes = reset.stream()
+                .map(tx -> {
+                    UUID userId = tx.getUser().getId();
+                    return new Change(userId, LocalDate.now(zones.get(userId)), tx.getId(), tx.getVersion(),
+                            tx.getTransactionName(), isCurrentDebit(tx), null, null);
+                })
+                .toList();
+        afterCommit(() -> changes.forEach(this::applyReset));
+    }
+
+    // 🔹 The user's days changed (new time zone, account deleted), the next read builds today again
+    public void forget(UUID userId) {
+        days.asMap().keySet().removeIf(key -> key.userId().equals(userId));
+    }
+
+    // Days that are over in every time zone are never read again
+    @Scheduled(cron = "0 0 * * * ?")
+    public void dropPastDays() {
+        LocalDate earliestToday = LocalDate.now(ZoneOffset.MIN);
+        days.asMap().keySet().removeIf(key -> key.day().isBefore(earliestToday));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void apply(Change change) {
+        Key key = new Key(change.userId(), change.day());
+        Day day = days.getIfPresent(key);
+        if (day == null) {
+            return;
+        }
+
+        day.lock.lock();
+        try {
+            // not built yet: the day is read after this commit and already holds the write
+            if (!day.built || day.apply(change)) {
+                return;
+            }
+        } finally {
+            day.lock.unlock();
+        }
+        days.asMap().remove(key, day);
+    }
+
+    private void applyReset(Change change) {
+        Day day = days.getIfPresent(new Key(change.userId(), change.day()));
+        if (day == null) {
+            return;
+        }
+
+        day.lock.lock();
+        try {
+            Tracked tracked = day.transactions.get(change.transactionId());
+            // a version that does not follow is left alone, the next add rebuilds the day as usual
+            if (day.built && tracked != null && change.version() == tracked.version + 1) {
+                tracked.version = change.version();
+            }
+        } finally {
+            day.lock.unlock();
+        }
+    }
+
+    private void build(UUID userId, TimeBuckets.Range today, Day day) {
+        logWriter.flushPending(userId);
+        day.built = false;
+        day.transactions.clear();
+
+        for (DebitLogEntry log : transactionRepository.findDebitLogsOfUserInRange(userId, today.start(), today.end())) {
+            Tracked tracked = day.transactions.computeIfAbsent(log.transactionId(), id -> new Tracked());
+            tracked.version = log.version();
+            tracked.name = log.transactionName();
+            tracked.counted = true;
+            tracked.total = log.action().fold(tracked.total, log.amount());
+        }
+        day.built = true;
+    }
+
+    private static boolean isCurrentDebit(Transaction tx) {
+        return tx.getTransactionType() == TransactionType.DEBIT && !tx.isDeleted();
+    }
+}
@@ -1,22 +1,24 @@
 package com.app.money_tracker_backend.service;
 
-import com.app.money_tracker_backend.repository.TransactionRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @Component
 public class TransactionAmountResetScheduler {
 
-    private final TransactionRepository transactionRepository;
+    private static final String LOCK_NAME = "spendify.nightly-transaction-reset";
+
+    private final TransactionAmountResetService resetService;
     @Autowired
     private TransactionCleanupService cleanupService;
+    @Autowired
+    private SchedulerLock schedulerLock;
 
-    public TransactionAmountResetScheduler(TransactionRepository transactionRepository) {
-        this.transactionRepository = transactionRepository;
+    public TransactionAmountResetScheduler(TransactionAmountResetService resetService) {
+        this.resetService = resetService;
     }
 
     /*
@@ -38,11 +40,13 @@ public class TransactionAmountResetScheduler {
 */
 
 //    @Scheduled(cron = "0 */1 * * * ?")    //Testt for 1 min
+    // Not @Transactional: the reset and the purge both commit per chunk.
+    // Guarded by a DB lock so only one instance runs it when several nodes are deployed.
     @Scheduled(cron = "0 0 1 * * ?", zone = "Asia/Kolkata")
-    @Transactional
     public void resetTransactionAmountsDaily() {
-        int updatedRows = transactionRepository.resetAllTransactionAmounts();
-        log.info("✅ Daily transaction reset completed. Rows updated: {}", updatedRows);
-        cleanupService.deleteOldTransactions();
+        schedulerLock.runExclusively(LOCK_NAME, () -> {
+            resetService.resetAllAmounts();
+            cleanupService.deleteOldTransactions();
+        });
     }
 }
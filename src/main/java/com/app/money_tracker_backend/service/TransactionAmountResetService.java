@@ -0,0 +1,118 @@
+package com.app.money_tracker_backend.service;
+
+import com.app.money_tracker_backend.model.Transaction;
+import com.app.money_tracker_backend.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Zeroes transaction amounts in keyset-ordered chunks instead of one table-wide UPDATE.
+// Each chunk commits on its own, so row locks are short and only rows with a nonzero amount are written.
+@Slf4j
+@Service
+public class TransactionAmountResetService {
+
+    // Lowest possible uuid, the keyset starting point
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TodaySpendCounter todaySpend;
+    private final int chunkSize;
+
+    private final Counter rowsReset;
+    private final Counter chunksCommitted;
+    private final Timer runTimer;
+    private final AtomicLong running = new AtomicLong();
+    private final AtomicLong currentRunRows = new AtomicLong();
+
+    public record ResetResult(long rows, int chunks, Duration took) {}
+
+    public TransactionAmountResetService(
+            TransactionRepository transactionRepository,
+            TransactionTemplate transactionTemplate,
+            TodaySpendCounter todaySpend,
+            MeterRegistry meterRegistry,
+            @Value("${spendify.amount-reset.chunk-size:1000}") int chunkSize
+    ) {
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.todaySpend = todaySpend;
+        this.chunkSize = chunkSize;
+
+        this.rowsReset = Counter.builder("spendify.amount.reset.rows")
+                .description("Transactions whose amount was reset to zero")
+                .register(meterRegistry);
+        this.chunksCommitted = Counter.builder("spendify.amount.reset.chunks")
+                .description("Committed reset chunks")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("spendify.amount.reset.duration")
+                .description("Duration of a full amount reset run")
+                .register(meterRegistry);
+        Gauge.builder("spendify.amount.reset.running", running, AtomicLong::get)
+                .description("1 while a reset run is in progress")
+                .register(meterRegistry);
+        Gauge.builder("spendify.amount.reset.progress.rows", currentRunRows, AtomicLong::get)
+                .description("Rows reset so far by the current (or last) run")
+                .register(meterRegistry);
+    }
+
+    public ResetResult resetAllAmounts() {
+        long startedAt = System.nanoTime();
+        running.set(1);
+        currentRunRows.set(0);
+
+        UUID after = FIRST_ID;
+        int chunks = 0;
+
+        try {
+            while (true) {
+                UUID lastId = after;
+                List<UUID> ids = transactionTemplate.execute(status -> resetChunk(lastId));
+                if (ids == null || ids.isEmpty()) {
+                    break;
+                }
+
+                after = ids.getLast();
+                chunks++;
+                chunksCommitted.increment();
+            }
+        } finally {
+            running.set(0);
+        }
+
+        Duration took = Duration.ofNanos(System.nanoTime() - startedAt);
+        runTimer.record(took);
+
+        ResetResult result = new ResetResult(currentRunRows.get(), chunks, took);
+        log.info("✅ Daily transaction reset completed. Rows updated: {}, chunks: {}, took {} ms",
+                result.rows(), result.chunks(), result.took().toMillis());
+        return result;
+    }
+
+    // Returns the ids of the chunk so the caller can continue after the last one
+    private List<UUID> resetChunk(UUID after) {
+        List<UUID> ids = transactionRepository.findNonZeroAmountIdsAfter(after, Limit.of(chunkSize));
+        if (ids.isEmpty()) {
+            return ids;
+        }
+
+        List<Transaction> reset = transactionRepository.resetAmountsByIdIn(ids);
+        // the reset writes no log, today's spend stays as it is; the counter only takes the new versions
+        todaySpend.recordReset(reset);
+        rowsReset.increment(reset.size());
+        currentRunRows.addAndGet(reset.size());
+        return ids;
+    }
+}
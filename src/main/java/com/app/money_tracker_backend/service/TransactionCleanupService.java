@@ -1,15 +1,26 @@
 package com.app.money_tracker_backend.service;
 
-import com.app.money_tracker_backend.model.Transaction;
+import com.app.money_tracker_backend.repository.MonthlyTransactionAggregateRepository;
+import com.app.money_tracker_backend.repository.PendingTransactionLogRepository;
+import com.app.money_tracker_backend.repository.TransactionLogCheckpointRepository;
 import com.app.money_tracker_backend.repository.TransactionLogRepository;
 import com.app.money_tracker_backend.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
+@Slf4j
 @Service
 public class TransactionCleanupService {
 
@@ -19,22 +30,107 @@ public class TransactionCleanupService {
     @Autowired
     private TransactionLogRepository transactionLogRepository;
 
-    // This method will delete transactions and their logs
-    @Transactional
-    public void deleteOldTransactions() {
+    @Autowired
+    private PendingTransactionLogRepository pendingLogRepository;
+
+    @Autowired
+    private MonthlyTransactionAggregateRepository monthlyAggregateRepository;
+
+    @Autowired
+    private TransactionLogCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spendify.cleanup.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${spendify.cleanup.chunk-size:500}")
+    private int chunkSize;
+
+    public record PurgeResult(int transactions, int logs, int aggregates, int chunks, Duration took) {}
+
+    private record ChunkResult(int transactions, int logs, int aggregates) {}
+
+    // This method will delete transactions and their logs.
+    // Works in chunks, each committed on its own, so locks stay short and an interrupted
+    // run simply continues with what is left the next time.
+    public PurgeResult deleteOldTransactions() {
+        long startedAt = System.nanoTime();
+
         // 30 days ago
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(30);
+        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
 
-        // Find all deleted transactions older than 30 days
-        List<Transaction> oldTransactions = transactionRepository
-                .findAllByDeletedTrueAndUpdatedAtBefore(cutoffDate);
+        int transactions = 0;
+        int logs = 0;
+        int aggregates = 0;
+        int chunks = 0;
 
-        for (Transaction tx : oldTransactions) {
-            // Delete transaction logs first
-            transactionLogRepository.deleteAllByTransactionId(tx.getId());
+        while (true) {
+            ChunkResult chunk = transactionTemplate.execute(status -> purgeChunk(cutoffDate));
+            if (chunk == null || chunk.transactions() == 0) {
+                break;
+            }
 
-            // Delete the transaction
-            transactionRepository.delete(tx);
+            transactions += chunk.transactions();
+            logs += chunk.logs();
+            aggregates += chunk.aggregates();
+            chunks++;
         }
+
+        PurgeResult result = new PurgeResult(
+                transactions, logs, aggregates, chunks,
+                Duration.ofNanos(System.nanoTime() - startedAt)
+        );
+        recordMetrics(result);
+        log.info("✅ Old transaction purge completed. Transactions: {}, logs: {}, aggregates: {}, chunks: {}, took {} ms",
+                result.transactions(), result.logs(), result.aggregates(), result.chunks(), result.took().toMillis());
+        return result;
+    }
+
+    // spendify.cleanup.purge.rows{table=...}, .chunks and .duration, next to spendify.amount.reset.*
+    private void recordMetrics(PurgeResult result) {
+        purgedRows("transactions").increment(result.transactions());
+        purgedRows("transaction_logs").increment(result.logs());
+        purgedRows("derived").increment(result.aggregates());
+        Counter.builder("spendify.cleanup.purge.chunks")
+                .description("Committed purge chunks")
+                .register(meterRegistry)
+                .increment(result.chunks());
+        Timer.builder("spendify.cleanup.purge.duration")
+                .description("Duration of a full purge run")
+                .register(meterRegistry)
+                .record(result.took());
+    }
+
+    private Counter purgedRows(String table) {
+        return Counter.builder("spendify.cleanup.purge.rows")
+                .description("Rows deleted by the purge of old soft-deleted transactions")
+                .tag("table", table)
+                .register(meterRegistry);
+    }
+
+    private ChunkResult purgeChunk(LocalDateTime cutoffDate) {
+        // Find the next batch of deleted transactions older than the cutoff
+        List<UUID> ids = transactionRepository.findPurgeableIds(cutoffDate, Limit.of(chunkSize));
+        if (ids.isEmpty()) {
+            return new ChunkResult(0, 0, 0);
+        }
+
+        // Deleted before the retention cutoff: none has a log today, the TODAY counter (TodaySpendCounter) holds none of them
+
+        // Delete transaction logs (moved, archived and still in the outbox) and derived rows first,
+        // then the transactions: an outbox row left behind would be flushed for a transaction that is gone
+        int logs = pendingLogRepository.deleteAllByTransactionIdIn(ids)
+                + transactionLogRepository.deleteAllByTransactionIdIn(ids)
+                + transactionLogRepository.deleteArchivedByTransactionIdIn(ids);
+        int aggregates = monthlyAggregateRepository.deleteAllByTransactionIdIn(ids)
+                + checkpointRepository.deleteAllByTransactionIdIn(ids);
+        int transactions = transactionRepository.deleteAllByIdIn(ids);
+
+        return new ChunkResult(transactions, logs, aggregates);
     }
 }
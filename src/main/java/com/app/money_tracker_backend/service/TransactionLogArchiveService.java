@@ -0,0 +1,185 @@
+package com.app.money_tracker_backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+// Storage tiers of transaction_logs (partitioned by month, see V8__partition_transaction_logs.sql).
+//   hot:  transaction_logs, the current month and the (hot-months - 1) before it, plus future months
+//   cold: transaction_logs_archive, older month partitions moved there as they are (no row copying)
+// Monthly aggregates are the summarized form of every month, so a window that reaches archived months
+// is answered from monthly_transaction_aggregates instead of the logs. Months are only archived once the
+// aggregates have been backfilled (MonthlyAggregateBackfillStatus), and log listings read the hot tier only,
+// so archiving is off unless spendify.logs.archive.enabled is set.
+// Partitions are cut on the stored created_at values (UTC), their months are TimeBuckets.storageMonth().
+@Slf4j
+@Service
+public class TransactionLogArchiveService {
+
+    private static final String LOCK_NAME = "spendify.transaction-log-partitions";
+    private static final String PARTITION_PREFIX = "transaction_logs_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLock schedulerLock;
+    private final TimeBuckets timeBuckets;
+    private final MonthlyAggregateBackfillStatus aggregateBackfill;
+    private final int hotMonths;
+    private final int partitionsAhead;
+    private final boolean archiveEnabled;
+
+    public TransactionLogArchiveService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            SchedulerLock schedulerLock,
+            TimeBuckets timeBuckets,
+            MonthlyAggregateBackfillStatus aggregateBackfill,
+            @Value("${spendify.logs.hot-months:13}") int hotMonths,
+            @Value("${spendify.logs.partitions-ahead:3}") int partitionsAhead,
+            @Value("${spendify.logs.archive.enabled:false}") boolean archiveEnabled
+    ) {
+        if (hotMonths < 1) {
+            throw new IllegalArgumentException("spendify.logs.hot-months must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.schedulerLock = schedulerLock;
+        this.timeBuckets = timeBuckets;
+        this.aggregateBackfill = aggregateBackfill;
+        this.hotMonths = hotMonths;
+        this.partitionsAhead = partitionsAhead;
+        this.archiveEnabled = archiveEnabled;
+    }
+
+    // 🔹 First day of the oldest month still guaranteed to be in the hot table
+    public LocalDate hotFrom() {
+        return timeBuckets.storageMonth().minusMonths(hotMonths - 1).atDay(1);
+    }
+
+    // 🔹 True when a window starting here (a created_at value) reaches months that have been archived:
+    // their logs are no longer in transaction_logs, read aggregates instead.
+    // Windows inside the hot tier never do, the partition catalog is only asked about older ones.
+    public boolean reachesArchive(LocalDateTime windowStart) {
+        return windowStart.isBefore(timeBuckets.storageMonthStart(YearMonth.from(hotFrom())))
+                && windowStart.isBefore(archivedUntil());
+    }
+
+    // 🔹 End of the archived range, as a created_at value: logs before it are no longer in transaction_logs.
+    // The epoch when nothing has been archived yet.
+    public LocalDateTime archivedUntil() {
+        List<String> archived = partitionsOf("transaction_logs_archive");
+        if (archived.isEmpty()) {
+            return LocalDate.EPOCH.atStartOfDay();
+        }
+        return timeBuckets.storageMonthStart(monthOf(archived.getLast()).plusMonths(1));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensurePartitionsOnStartup() {
+        schedulerLock.runExclusively(LOCK_NAME, this::ensurePartitions);
+    }
+
+    // Runs before the 1 AM reset
+    @Scheduled(cron = "0 30 0 * * ?", zone = "Asia/Kolkata")
+    public void maintainPartitionsDaily() {
+        schedulerLock.runExclusively(LOCK_NAME, () -> {
+            ensurePartitions();
+            if (archiveEnabled) {
+                archiveClosedMonths();
+            }
+        });
+    }
+
+    // 🔹 Creates the partitions of the current month and the next few
+    public void ensurePartitions() {
+        YearMonth current = timeBuckets.storageMonth();
+        for (int i = 0; i <= partitionsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+    }
+
+    // 🔹 Moves month partitions older than the hot tier to transaction_logs_archive.
+    // Not before the aggregates are complete: an archived month is only served from them.
+    public int archiveClosedMonths() {
+        if (!aggregateBackfill.isCompleted()) {
+            log.warn("⏭️ Not archiving transaction logs: monthly aggregates have not been backfilled yet");
+            return 0;
+        }
+
+        YearMonth oldestHot = YearMonth.from(hotFrom());
+        int archived = 0;
+
+        for (String partition : partitionsOf("transaction_logs")) {
+            YearMonth month = monthOf(partition);
+            if (!month.isBefore(oldestHot)) {
+                break;
+            }
+
+            // One transaction: the month is never visible in both tiers or in neither
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("ALTER TABLE transaction_logs DETACH PARTITION " + partition);
+                jdbcTemplate.execute("ALTER TABLE transaction_logs_archive ATTACH PARTITION " + partition
+                        + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+            });
+            archived++;
+            log.info("✅ Archived transaction log partition {}", partition);
+        }
+
+        return archived;
+    }
+
+    // Rows that landed in the default partition for this month are moved into the new partition,
+    // otherwise attaching it would fail
+    private void createPartition(YearMonth month) {
+        String partition = PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+        String from = month.atDay(1).toString();
+        String to = month.plusMonths(1).atDay(1).toString();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Boolean exists = jdbcTemplate.queryForObject(
+                    "SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition);
+            if (Boolean.TRUE.equals(exists)) {
+                return;
+            }
+
+            jdbcTemplate.execute("CREATE TABLE " + partition
+                    + " (LIKE transaction_logs INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            jdbcTemplate.update("WITH moved AS ("
+                    + " DELETE FROM transaction_logs_default"
+                    + " WHERE created_at >= CAST(? AS timestamp) AND created_at < CAST(? AS timestamp)"
+                    + " RETURNING *)"
+                    + " INSERT INTO " + partition + " SELECT * FROM moved", from, to);
+            jdbcTemplate.execute("ALTER TABLE transaction_logs ATTACH PARTITION " + partition
+                    + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            log.info("✅ Created transaction log partition {}", partition);
+        });
+    }
+
+    // Month partitions of a parent table, oldest first
+    private List<String> partitionsOf(String parent) {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = to_regclass(?)
+                  AND c.relname ~ '^transaction_logs_p[0-9]{6}$'
+                ORDER BY c.relname
+                """, String.class, parent);
+    }
+
+    private static YearMonth monthOf(String partition) {
+        return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+    }
+}
@@ -0,0 +1,275 @@
+package com.app.money_tracker_backend.service;
+
+import com.app.money_tracker_backend.dto.LoggedTransaction;
+import com.app.money_tracker_backend.dto.TransactionLogEntry;
+import com.app.money_tracker_backend.model.TransactionLogCheckpoint;
+import com.app.money_tracker_backend.repository.TransactionLogCheckpointRepository;
+import com.app.money_tracker_backend.repository.TransactionLogRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Compacts the logs of every closed month into one checkpoint per transaction
+// (transaction_log_checkpoints), so a YEAR replay reads the latest checkpoint plus the logs
+// written after it instead of every log since January 1.
+// Only years still replayed from the hot tier are compacted, older windows read monthly aggregates.
+// Months are those of each user's time zone (TimeBuckets), like the YEAR windows that read them.
+// Checkpoints only serve the log replay, so nothing is compacted while analytics read monthly aggregates.
+@Slf4j
+@Service
+public class TransactionLogCompactionService {
+
+    private static final String LOCK_NAME = "spendify.transaction-log-compaction";
+
+    private final TransactionLogRepository transactionLogRepository;
+    private final TransactionLogCheckpointRepository checkpointRepository;
+    private final TransactionLogArchiveService logArchive;
+    private final TransactionLogWriter logWriter;
+    private final MonthlyAggregateBackfillStatus aggregateBackfill;
+    private final TimeBuckets timeBuckets;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLock schedulerLock;
+    private final EntityManager entityManager;
+    private final boolean enabled;
+    private final boolean readFromMonthlyAggregates;
+    private final int chunkSize;
+
+    public record CompactionResult(int months, int checkpoints, int removed, Duration took) {}
+
+    public TransactionLogCompactionService(
+            TransactionLogRepository transactionLogRepository,
+            TransactionLogCheckpointRepository checkpointRepository,
+            TransactionLogArchiveService logArchive,
+            TransactionLogWriter logWriter,
+            MonthlyAggregateBackfillStatus aggregateBackfill,
+            TimeBuckets timeBuckets,
+            TransactionTemplate transactionTemplate,
+            SchedulerLock schedulerLock,
+            EntityManager entityManager,
+            @Value("${spendify.logs.compaction.enabled:true}") boolean enabled,
+            @Value("${spendify.analytics.monthly-aggregates.enabled:false}") boolean readFromMonthlyAggregates,
+            @Value("${spendify.logs.compaction.chunk-size:500}") int chunkSize
+    ) {
+        this.transactionLogRepository = transactionLogRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.logArchive = logArchive;
+        this.logWriter = logWriter;
+        this.aggregateBackfill = aggregateBackfill;
+        this.timeBuckets = timeBuckets;
+        this.transactionTemplate = transactionTemplate;
+        this.schedulerLock = schedulerLock;
+        this.entityManager = entityManager;
+        this.enabled = enabled;
+        this.readFromMonthlyAggregates = readFromMonthlyAggregates;
+        this.chunkSize = chunkSize;
+    }
+
+    // 🔹 Last month of the year whose checkpoints are complete (0 = replay from January 1)
+    public int compactedThrough(int year) {
+        Integer month = checkpointRepository.findCompactedThrough(year);
+        return month == null ? 0 : month;
+    }
+
+    // Runs after the partition maintenance and before the 1 AM reset
+    @Scheduled(cron = "0 45 0 * * ?", zone = "Asia/Kolkata")
+    public void compactDaily() {
+        // YEAR analytics skip the replay when they read monthly aggregates, no one would read the checkpoints
+        if (!enabled || (readFromMonthlyAggregates && aggregateBackfill.isCompleted())) {
+            return;
+        }
+        schedulerLock.runExclusively(LOCK_NAME, this::compactClosedMonths);
+    }
+
+    // 🔹 Writes the checkpoints of every closed month not compacted yet, oldest first.
+    // Each month commits on its own, an interrupted run continues with the next month not finished.
+    public CompactionResult compactClosedMonths() {
+        long startedAt = System.nanoTime();
+
+        // write-behind logs still in the outbox belong to the months about to be compacted
+        logWriter.flush();
+
+        YearMonth current = lastOpenMonth();
+        int firstYear = firstReplayedYear();
+
+        Integer removed = transactionTemplate.execute(
+                status -> checkpointRepository.deleteAllByYearBefore(firstYear)
+        );
+
+        int months = 0;
+        int checkpoints = 0;
+
+        for (int year = firstYear; year <= current.getYear(); year++) {
+            int lastClosed = year == current.getYear() ? current.getMonthValue() - 1 : 12;
+
+            for (int month = compactedThrough(year) + 1; month <= lastClosed; month++) {
+                YearMonth period = YearMonth.of(year, month);
+                Integer written = transactionTemplate.execute(status -> compactMonth(period));
+                checkpoints += written == null ? 0 : written;
+                months++;
+            }
+        }
+
+        CompactionResult result = new CompactionResult(
+                months, checkpoints, removed == null ? 0 : removed,
+                Duration.ofNanos(System.nanoTime() - startedAt)
+        );
+        log.info("✅ Transaction log compaction completed. Months: {}, checkpoints: {}, removed: {}, took {} ms",
+                result.months(), result.checkpoints(), result.removed(), result.took().toMillis());
+        return result;
+    }
+
+    // 🔹 Rewrites the checkpoints of one user in the months compacted so far (after a time zone change).
+    // Runs inside the caller's transaction, which has flushed the user's pending logs before locking the user.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int recompactUser(UUID userId) {
+        ZoneId zone = timeBuckets.reloadZoneOf(userId).zone();
+        int firstYear = firstReplayedYear();
+        int lastYear = lastOpenMonth().getYear();
+
+        // read before the user's checkpoints go, they may be the only ones of a month
+        int[] compactedThrough = new int[lastYear - firstYear + 1];
+        for (int year = firstYear; year <= lastYear; year++) {
+            compactedThrough[year - firstYear] = compactedThrough(year);
+        }
+
+        checkpointRepository.deleteAllByUserId(userId);
+
+        int written = 0;
+        for (int year = firstYear; year <= lastYear; year++) {
+            for (int month = 1; month <= compactedThrough[year - firstYear]; month++) {
+                YearMonth period = YearMonth.of(year, month);
+                TimeBuckets.Range range = TimeBuckets.month(period, zone);
+
+                List<LoggedTransaction> logged =
+                        transactionLogRepository.findLoggedTransactionsOfUserInRange(userId, range.start(), range.end());
+                for (int from = 0; from < logged.size(); from += chunkSize) {
+                    written += compactZone(period, logged.subList(from, Math.min(from + chunkSize, logged.size())), range);
+                }
+            }
+        }
+        return written;
+    }
+
+    // A month is closed once it is over in every time zone
+    private static YearMonth lastOpenMonth() {
+        return YearMonth.now(ZoneOffset.MIN);
+    }
+
+    // A YEAR window is replayed only when January 1 is still in the hot tier (see TransactionService)
+    private int firstReplayedYear() {
+        YearMonth hotFrom = YearMonth.from(logArchive.hotFrom());
+        return hotFrom.getMonthValue() == 1 ? hotFrom.getYear() : hotFrom.getYear() + 1;
+    }
+
+    private int compactMonth(YearMonth period) {
+        // Re-running a month replaces its checkpoints
+        checkpointRepository.deleteAllByPeriod(period.getYear(), period.getMonthValue());
+
+        // Every transaction with a log in this month in some zone; each is then replayed over its user's month
+        LocalDateTime start = TimeBuckets.month(period, ZoneOffset.MAX).start();
+        LocalDateTime end = TimeBuckets.month(period, ZoneOffset.MIN).end();
+
+        UUID after = new UUID(0L, 0L);
+        int written = 0;
+
+        while (true) {
+            List<LoggedTransaction> chunk = transactionLogRepository.findLoggedTransactionsInRange(
+                    start, end, after, Limit.of(chunkSize)
+            );
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            written += compactChunk(period, chunk);
+            after = chunk.getLast().transactionId();
+
+            // keep the persistence context small over a long month
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        return written;
+    }
+
+    // Transactions of users in the same zone share their month bounds, one replay query per zone
+    private int compactChunk(YearMonth period, List<LoggedTransaction> chunk) {
+        Map<UUID, ZoneId> zones = timeBuckets.zonesOf(chunk.stream().map(LoggedTransaction::userId).toList());
+        Map<ZoneId, List<LoggedTransaction>> byZone = chunk.stream()
+                .collect(Collectors.groupingBy(tx -> zones.get(tx.userId())));
+
+        int written = 0;
+        for (Map.Entry<ZoneId, List<LoggedTransaction>> zone : byZone.entrySet()) {
+            written += compactZone(period, zone.getValue(), TimeBuckets.month(period, zone.getKey()));
+        }
+        return written;
+    }
+
+    private int compactZone(
+            YearMonth period,
+            List<LoggedTransaction> chunk,
+            TimeBuckets.Range range
+    ) {
+        List<UUID> ids = chunk.stream()
+                .map(LoggedTransaction::transactionId)
+                .toList();
+
+        // running: the year so far, continued from last month's checkpoint; monthOnly: this month alone
+        TransactionLogReplay running = new TransactionLogReplay(ids.size());
+        TransactionLogReplay monthOnly = new TransactionLogReplay(ids.size());
+
+        if (period.getMonthValue() > 1) {
+            for (TransactionLogCheckpoint checkpoint :
+                    checkpointRepository.findLatestByTransactionIdIn(ids, period.getYear(), period.getMonthValue() - 1)) {
+                running.seed(checkpoint.getTransactionId(), checkpoint.getTotal(), checkpoint.isDeleted());
+            }
+        }
+
+        // only transactions with a log in their user's month get a checkpoint for it
+        Set<UUID> logged = new HashSet<>();
+        try (Stream<TransactionLogEntry> logs = transactionLogRepository.streamEntriesByTransactionIdInAndCreatedAtInRange(
+                ids, range.start(), range.end())) {
+            logs.forEach(log -> {
+                logged.add(log.transactionId());
+                running.apply(log.transactionId(), log.action(), log.amount());
+                monthOnly.apply(log.transactionId(), log.action(), log.amount());
+            });
+        }
+
+        LocalDateTime compactedAt = LocalDateTime.now();
+        List<TransactionLogCheckpoint> checkpoints = chunk.stream()
+                .filter(tx -> logged.contains(tx.transactionId()))
+                .map(tx -> TransactionLogCheckpoint.builder()
+                        .userId(tx.userId())
+                        .transactionId(tx.transactionId())
+                        .year(period.getYear())
+                        .month(period.getMonthValue())
+                        .total(running.total(tx.transactionId()))
+                        .deleted(running.isDeleted(tx.transactionId()))
+                        .monthTotal(monthOnly.total(tx.transactionId()))
+                        .compactedAt(compactedAt)
+                        .build())
+                .toList();
+
+        checkpointRepository.saveAll(checkpoints);
+        return checkpoints.size();
+    }
+}
@@ -0,0 +1,98 @@
+package com.app.money_tracker_backend.service;
+
+import com.app.money_tracker_backend.enums.LogAction;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Folds transaction logs (ordered by created_at) into a running total per transaction.
+ * Created / Updated set the total, Added adds to it, Deleted drops the transaction
+ * for the rest of the window.
+ *
+ * One instance serves consecutive windows (e.g. the 12 months of a year): nextWindow()
+ * is O(1) and keeps the per-transaction slots, so a rollup allocates one pre-sized map
+ * instead of fresh maps and sets for every window.
+ *
+ * A window can also start from a checkpoint: seed() sets the state a transaction had before
+ * the first log that is still replayed.
+ */
+public final class TransactionLogReplay {
+
+    private static final class Slot {
+        int window;
+        BigDecimal total;
+        boolean deleted;
+    }
+
+    private final Map<UUID, Slot> slots;
+    private int window;
+
+    public TransactionLogReplay(int expectedTransactions) {
+        this.slots = HashMap.newHashMap(expectedTransactions);
+    }
+
+    public void apply(UUID transactionId, LogAction action, BigDecimal amount) {
+        Slot slot = currentSlot(transactionId);
+
+        if (slot.deleted) return;
+
+        slot.total = action.fold(slot.total, amount);
+        slot.deleted = action == LogAction.DELETED;
+    }
+
+    // Start the transaction from a known state in the current window (before any apply)
+    public void seed(UUID transactionId, BigDecimal total, boolean deleted) {
+        Slot slot = currentSlot(transactionId);
+        slot.total = total;
+        slot.deleted = deleted;
+    }
+
+    private Slot currentSlot(UUID transactionId) {
+        Slot slot = slots.get(transactionId);
+        if (slot == null) {
+            slot = new Slot();
+            slot.window = window;
+            slots.put(transactionId, slot);
+        } else if (slot.window != window) {
+            // stale slot from an earlier window, start over
+            slot.window = window;
+            slot.total = null;
+            slot.deleted = false;
+        }
+        return slot;
+    }
+
+    // Running total in the current window (null = none yet, or deleted)
+    public BigDecimal total(UUID transactionId) {
+        Slot slot = slots.get(transactionId);
+        return slot != null && slot.window == window ? slot.total : null;
+    }
+
+    public boolean isDeleted(UUID transactionId) {
+        Slot slot = slots.get(transactionId);
+        return slot != null && slot.window == window && slot.deleted;
+    }
+
+    // Forget all totals and start a new window
+    public void nextWindow() {
+        window++;
+    }
+
+    public void forEachTotal(BiConsumer<UUID, BigDecimal> consumer) {
+        slots.forEach((transactionId, slot) -> {
+            if (slot.window == window && slot.total != null) {
+                consumer.accept(transactionId, slot.total);
+            }
+        });
+    }
+
+    public Map<UUID, BigDecimal> totals() {
+        Map<UUID, BigDecimal> totals = new HashMap<>();
+        forEachTotal(totals::put);
+        return totals;
+    }
+}
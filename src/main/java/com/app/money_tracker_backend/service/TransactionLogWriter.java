@@ -0,0 +1,130 @@
+package com.app.money_tracker_backend.service;
+
+import com.app.money_tracker_backend.model.PendingTransactionLog;
+import com.app.money_tracker_backend.model.TransactionLog;
+import com.app.money_tracker_backend.repository.PendingTransactionLogRepository;
+import com.app.money_tracker_backend.repository.TransactionLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Where TransactionService writes its audit logs. By default straight into transaction_logs.
+ * With spendify.logs.write-behind.enabled the log is appended to transaction_log_outbox instead, still in the
+ * request transaction so it commits or rolls back with the change, and a background flush moves the outbox
+ * to transaction_logs in batches. Log reads call flushPending(userId) first, so users always see their own writes.
+ */
+@Slf4j
+@Component
+public class TransactionLogWriter {
+
+    private final TransactionLogRepository transactionLogRepository;
+    private final PendingTransactionLogRepository pendingLogRepository;
+    private final TransactionTemplate newTransaction;
+    private final boolean writeBehind;
+    private final int batchSize;
+
+    private final Counter logsFlushed;
+
+    public TransactionLogWriter(
+            TransactionLogRepository transactionLogRepository,
+            PendingTransactionLogRepository pendingLogRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${spendify.logs.write-behind.enabled:false}") boolean writeBehind,
+            @Value("${spendify.logs.write-behind.batch-size:500}") int batchSize
+    ) {
+        this.transactionLogRepository = transactionLogRepository;
+        this.pendingLogRepository = pendingLogRepository;
+        this.writeBehind = writeBehind;
+        this.batchSize = batchSize;
+
+        // flushes commit on their own, also when called from a read-only request transaction
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.logsFlushed = Counter.builder("spendify.logs.write-behind.flushed")
+                .description("Audit logs moved from transaction_log_outbox to transaction_logs")
+                .register(meterRegistry);
+    }
+
+    // 🔹 Write one audit log (runs inside the caller's write)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(TransactionLog log) {
+        if (writeBehind) {
+            pendingLogRepository.save(pending(log));
+        } else {
+            transactionLogRepository.save(log);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<TransactionLog> logs) {
+        if (writeBehind) {
+            pendingLogRepository.saveAll(logs.stream().map(TransactionLogWriter::pending).toList());
+        } else {
+            transactionLogRepository.saveAll(logs);
+        }
+    }
+
+    // 🔹 Read-your-writes: move the user's pending logs before transaction_logs is read for them
+    public void flushPending(UUID userId) {
+        if (!writeBehind || !pendingLogRepository.existsByUserId(userId)) {
+            return;
+        }
+        Integer moved = newTransaction.execute(status -> pendingLogRepository.moveByUserId(userId));
+        logsFlushed.increment(moved == null ? 0 : moved);
+    }
+
+    // 🔹 Background flush, batch after batch until the outbox is drained
+    @Scheduled(
+            fixedDelayString = "${spendify.logs.write-behind.flush-interval:PT1S}",
+            initialDelayString = "${spendify.logs.write-behind.flush-interval:PT1S}"
+    )
+    public void flush() {
+        if (!writeBehind) {
+            return;
+        }
+
+        int total = 0;
+        while (true) {
+            Integer moved = newTransaction.execute(status -> pendingLogRepository.moveBatch(batchSize));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            total += moved;
+            logsFlushed.increment(moved);
+            if (moved < batchSize) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.debug("Write-behind flush: {} logs moved to transaction_logs", total);
+        }
+    }
+
+    private static PendingTransactionLog pending(TransactionLog log) {
+        return PendingTransactionLog.builder()
+                .userId(log.getUser().getId())
+                .transactionId(log.getTransactionId())
+                .transactionName(log.getTransactionName())
+                .transactionType(log.getTransactionType())
+                .amount(log.getAmount())
+                .action(log.getAction())
+                .createdAt(log.getCreatedAt())
+                .bankId(log.getBank() != null ? log.getBank().getId() : null)
+                .build();
+    }
+}
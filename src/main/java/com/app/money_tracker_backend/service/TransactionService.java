@@ -1,46 +1,93 @@
 package com.app.money_tracker_backend.service;
 
-import com.app.money_tracker_backend.config.SecurityUtil;
 import com.app.money_tracker_backend.dto.*;
+import com.app.money_tracker_backend.enums.LogAction;
 import com.app.money_tracker_backend.enums.TransactionType;
 import com.app.money_tracker_backend.model.Bank;
+import com.app.money_tracker_backend.model.MonthlyTransactionAggregate;
 import com.app.money_tracker_backend.model.Transaction;
 import com.app.money_tracker_backend.model.TransactionLog;
+import com.app.money_tracker_backend.model.TransactionLogCheckpoint;
 import com.app.money_tracker_backend.model.User;
 import com.app.money_tracker_backend.repository.BankRepository;
+import com.app.money_tracker_backend.repository.MonthlyTransactionAggregateRepository;
+import com.app.money_tracker_backend.repository.TransactionLogCheckpointRepository;
 import com.app.money_tracker_backend.repository.TransactionLogRepository;
 import com.app.money_tracker_backend.repository.TransactionRepository;
-import com.app.money_tracker_backend.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+// Every public method is timed as spendify.service (class, method and exception tags)
 @Service
 @RequiredArgsConstructor
+@Timed(value = "spendify.service", histogram = true)
 public class TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final TransactionLogRepository transactionLogRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final BankCatalog bankCatalog;
     private final BankRepository bankRepository;
-
-    // 🔹 Get the currently logged-in user
+    private final MonthlyTransactionAggregateRepository monthlyAggregateRepository;
+    private final MonthlyTransactionAggregateService monthlyAggregateService;
+    private final TransactionLogArchiveService logArchive;
+    private final TransactionLogCheckpointRepository checkpointRepository;
+    private final TransactionLogCompactionService logCompaction;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionLogWriter logWriter;
+    private final TodaySpendCounter todaySpend;
+    private final TimeBuckets timeBuckets;
+    private final MonthlyAggregateBackfillStatus aggregateBackfill;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_SIZE = 500;
+
+    // Serve month-granular analytics from monthly_transaction_aggregates instead of replaying logs
+    // (only once the backfill has completed, see MonthlyAggregateBackfillStatus)
+    @Value("${spendify.analytics.monthly-aggregates.enabled:false}")
+    private boolean readFromMonthlyAggregates;
+
+    // Attempts of an optimistic write (update / delete) before the conflict is reported
+    @Value("${spendify.transactions.optimistic-retries:3}")
+    private int optimisticRetries;
+
+    // 🔹 Get the currently logged-in user (lazy reference, resolved without a users query)
     private User getCurrentUser() {
-        String email = SecurityUtil.getCurrentUserEmail();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return currentUserResolver.getCurrentUserReference();
+    }
+
+    // 🔹 Bank as a lazy reference, validated against the in-memory catalog (no SELECT)
+    private Bank bankReference(Integer bankId) {
+        if (bankId == null) {
+            return null;
+        }
+        if (!bankCatalog.contains(bankId)) {
+            throw new RuntimeException("Bank not found");
+        }
+        return bankRepository.getReferenceById(bankId);
     }
 
     // 🔹 Helper to map Transaction to TransactionResponse
-    private TransactionResponse toResponse(Transaction tx) {
+    TransactionResponse toResponse(Transaction tx) {
         return new TransactionResponse(
                 tx.getId(),
                 tx.getTransactionName(),
@@ -52,78 +99,103 @@ public class TransactionService {
         );
     }
 
-    private TransactionLogResponse toResponse(TransactionLog log) {
-        return new TransactionLogResponse(
-                log.getId(), // ✅ log primary key
-                log.getTransactionName(),
-                log.getTransactionType(),
-                log.getAmount(),
-                log.getCreatedAt(),
-                log.getBank() != null ? log.getBank().getId() : null, // ✅ bankId
-                log.getAction() // ✅ action
-        );
-    }
 
 
 
-
-    // 🔹 Create a transaction
-    @Transactional
-    public TransactionResponse createTransaction(TransactionRequest request) {
-        User user = getCurrentUser();
-
-        Bank bank = null;
-        if (request.getBankId() != null) {
-            bank = bankRepository.findById(request.getBankId())
-                    .orElseThrow(() -> new RuntimeException("Bank not found"));
-        }
-
-        Transaction tx = Transaction.builder()
+    private Transaction newTransaction(User user, TransactionRequest request) {
+        return Transaction.builder()
                 .transactionName(request.getTransactionName())
                 .transactionType(TransactionType.valueOf(request.getTransactionType()))
                 .amount(request.getAmount())
                 .user(user)
-                .bank(bank) // Set bank
+                .bank(bankReference(request.getBankId())) // Set bank
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .deleted(false)
                 .build();
+    }
 
-        Transaction savedTx = transactionRepository.save(tx);
-
-        // 🔹 Log transaction creation
-        TransactionLog log = TransactionLog.builder()
+    private TransactionLog creationLog(Transaction tx) {
+        return TransactionLog.builder()
                 .transactionId(tx.getId())
-                .user(user)
-                .bank(bank)
-                .transactionName(savedTx.getTransactionName())
-                .transactionType(savedTx.getTransactionType())
-                .amount(savedTx.getAmount())
-                .action("Created a new transaction")
+                .user(tx.getUser())
+                .bank(tx.getBank())
+                .transactionName(tx.getTransactionName())
+                .transactionType(tx.getTransactionType())
+                .amount(tx.getAmount())
+                .action(LogAction.CREATED)
                 .createdAt(LocalDateTime.now())
                 .build();
-        transactionLogRepository.save(log);
+    }
+
+    // 🔹 Create a transaction
+    @Transactional
+    public TransactionResponse createTransaction(TransactionRequest request) {
+        User user = getCurrentUser();
+
+        // Flushed first: the FK check holds the user row, a zone change cannot slip in before the aggregate
+        Transaction savedTx = transactionRepository.saveAndFlush(newTransaction(user, request));
+
+        // 🔹 Log transaction creation
+        TransactionLog log = creationLog(savedTx);
+        logWriter.append(log);
+        monthlyAggregateService.apply(log);
+        todaySpend.record(savedTx, log);
 
         return toResponse(savedTx);
     }
 
-    // 🔹 Update a transaction
+    // 🔹 Create many transactions at once; rows are flushed as JDBC batches before the aggregates
     @Transactional
+    public List<TransactionResponse> createTransactions(List<TransactionRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one transaction is required");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " transactions per batch");
+        }
+
+        User user = getCurrentUser();
+
+        List<Transaction> transactions = new ArrayList<>(requests.size());
+        for (TransactionRequest request : requests) {
+            transactions.add(newTransaction(user, request));
+        }
+        transactionRepository.saveAllAndFlush(transactions);
+
+        List<TransactionLog> logs = transactions.stream()
+                .map(this::creationLog)
+                .toList();
+        logWriter.appendAll(logs);
+        monthlyAggregateService.applyCreated(logs);
+        for (int i = 0; i < transactions.size(); i++) {
+            todaySpend.record(transactions.get(i), logs.get(i));
+        }
+
+        return transactions.stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    // 🔹 Update a transaction.
+    // Optimistic: the flush checks the version that was read, on a concurrent write the update is
+    // re-applied on fresh state in a new transaction (see withOptimisticRetry)
     public TransactionResponse updateTransaction(String transactionId, TransactionRequest request) {
+        UUID id = UUID.fromString(transactionId);
+        return withOptimisticRetry(lockRow -> applyUpdate(id, request, lockRow));
+    }
+
+    private TransactionResponse applyUpdate(UUID transactionId, TransactionRequest request, boolean lockRow) {
         User user = getCurrentUser();
 
-        Transaction tx = transactionRepository.findById(UUID.fromString(transactionId))
+        Transaction tx = findForWrite(transactionId, lockRow)
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
 
         if (!tx.getUser().getId().equals(user.getId())) {
             throw new RuntimeException("Unauthorized access");
         }
 
-        Bank bank = null;
-        if (request.getBankId() != null) {
-            bank = bankRepository.findById(request.getBankId())
-                    .orElseThrow(() -> new RuntimeException("Bank not found"));
-        }
+        Bank bank = bankReference(request.getBankId());
 
         tx.setTransactionName(request.getTransactionName());
         tx.setTransactionType(TransactionType.valueOf(request.getTransactionType()));
@@ -131,69 +203,156 @@ public class TransactionService {
         tx.setBank(bank);
         tx.setUpdatedAt(LocalDateTime.now());
 
-        Transaction updatedTx = transactionRepository.save(tx);
+        // Flushed first: a version conflict fails before any log is written,
+        // and the row is locked before the aggregate, in the same order as add-amount
+        Transaction updatedTx = transactionRepository.saveAndFlush(tx);
 
         // 🔹 Log transaction update
-        transactionLogRepository.save(
-                TransactionLog.builder()
-                        .transactionId(tx.getId())
-                        .user(user)
-                        .bank(bank)
-                        .transactionName(updatedTx.getTransactionName())
-                        .transactionType(updatedTx.getTransactionType())
-                        .amount(updatedTx.getAmount())
-                        .action("Amount for this transaction has been updated")
-                        .createdAt(LocalDateTime.now())
-                        .build()
-        );
+        TransactionLog log = TransactionLog.builder()
+                .transactionId(tx.getId())
+                .user(user)
+                .bank(bank)
+                .transactionName(updatedTx.getTransactionName())
+                .transactionType(updatedTx.getTransactionType())
+                .amount(updatedTx.getAmount())
+                .action(LogAction.UPDATED)
+                .createdAt(LocalDateTime.now())
+                .build();
+        logWriter.append(log);
+        monthlyAggregateService.apply(log);
+        todaySpend.record(updatedTx, log);
 
         return toResponse(updatedTx);
     }
 
+    // 🔹 Runs one write in its own transaction, again on a version conflict.
+    // After spendify.transactions.optimistic-retries lost attempts the row is hot (e.g. a burst of add-amount calls):
+    // the last attempt locks it, so the write cannot be starved, and uncontended writes never take the lock
+    private <T> T withOptimisticRetry(Function<Boolean, T> write) {
+        for (int attempt = 1; attempt <= optimisticRetries; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> write.apply(false));
+            } catch (OptimisticLockingFailureException e) {
+                // lost to a concurrent write, read the fresh state and apply again
+            }
+        }
+        return transactionTemplate.execute(status -> write.apply(true));
+    }
+
+    private Optional<Transaction> findForWrite(UUID transactionId, boolean lockRow) {
+        return lockRow
+                ? transactionRepository.findByIdForUpdate(transactionId)
+                : transactionRepository.findById(transactionId);
+    }
+
     // 🔹 Get all transactions for current user
     @Transactional(readOnly = true)
     public List<TransactionResponse> getAllTransactions() {
         User user = getCurrentUser();
-        return transactionRepository.findAllByUserIdAndDeletedFalseOrderByUpdatedAtDesc(user.getId())
-                .stream()
-                .map(this::toResponse)
-                .toList();
+        return transactionRepository.findResponsesByUserId(user.getId());
     }
 
 
     @Transactional(readOnly = true)
     public List<TransactionLogResponse> getAllTransactionsLogs() {
         User user = getCurrentUser();
-        return transactionLogRepository.findAllByUserIdOrderByCreatedAtDesc(user.getId())
-                .stream()
-                .map(this::toResponse)
-                .toList();
+        logWriter.flushPending(user.getId());
+        return transactionLogRepository.findResponsesByUserId(user.getId());
     }
 
-    @Transactional
-    public TransactionResponse addAmountToTransaction(AddAmountRequest request) {
+    // 🔹 Keyset page of current transactions, newest update first
+    @Transactional(readOnly = true)
+    public CursorPage<TransactionResponse> getTransactionsPage(String cursor, Integer limit) {
+        User user = getCurrentUser();
+        int pageSize = pageSize(limit);
+
+        KeysetCursor after = cursor == null ? null : KeysetCursor.decode(cursor);
 
+        // fetch one extra row to know whether another page exists
+        List<TransactionResponse> rows = after == null
+                ? transactionRepository.findResponsePage(user.getId(), Limit.of(pageSize + 1))
+                : transactionRepository.findResponsePageAfter(
+                        user.getId(), after.position(), after.id(), Limit.of(pageSize + 1));
+
+        return toPage(rows, pageSize, tx -> new KeysetCursor(tx.getUpdatedAt(), tx.getId()));
+    }
+
+    // 🔹 Keyset page of the activity log, newest first
+    @Transactional(readOnly = true)
+    public CursorPage<TransactionLogResponse> getTransactionLogsPage(String cursor, Integer limit) {
         User user = getCurrentUser();
+        logWriter.flushPending(user.getId());
+        int pageSize = pageSize(limit);
 
-        Transaction tx = transactionRepository.findById(request.getTransactionId())
-                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+        KeysetCursor after = cursor == null ? null : KeysetCursor.decode(cursor);
 
-        // 🔐 Ownership check
-        if (!tx.getUser().getId().equals(user.getId())) {
-            throw new RuntimeException("Unauthorized access");
+        List<TransactionLogResponse> rows = after == null
+                ? transactionLogRepository.findResponsePage(user.getId(), Limit.of(pageSize + 1))
+                : transactionLogRepository.findResponsePageAfter(
+                        user.getId(), after.position(), after.id(), Limit.of(pageSize + 1));
+
+        return toPage(rows, pageSize, log -> new KeysetCursor(log.getCreatedAt(), log.getId()));
+    }
+
+    // 🔹 Push every current transaction to the sink as it is read, without building a list
+    @Transactional(readOnly = true)
+    public void streamTransactions(Consumer<TransactionResponse> sink) {
+        User user = getCurrentUser();
+        try (Stream<TransactionResponse> rows = transactionRepository.streamResponsesByUserId(user.getId())) {
+            rows.forEach(sink);
+        }
+    }
+
+    // 🔹 Push the whole activity log to the sink as it is read
+    @Transactional(readOnly = true)
+    public void streamTransactionLogs(Consumer<TransactionLogResponse> sink) {
+        User user = getCurrentUser();
+        logWriter.flushPending(user.getId());
+        try (Stream<TransactionLogResponse> rows = transactionLogRepository.streamResponsesByUserId(user.getId())) {
+            rows.forEach(sink);
         }
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null) return DEFAULT_PAGE_SIZE;
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        return limit;
+    }
+
+    private <R> CursorPage<R> toPage(
+            List<R> rows,
+            int pageSize,
+            Function<R, KeysetCursor> cursorOf
+    ) {
+        boolean hasMore = rows.size() > pageSize;
+        List<R> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = hasMore ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPage<>(List.copyOf(page), nextCursor);
+    }
+
+    // 🔹 Add to the amount atomically (UPDATE ... SET amount = amount + delta RETURNING), no read-modify-write
+    @Transactional
+    public TransactionResponse addAmountToTransaction(AddAmountRequest request) {
+
+        User user = getCurrentUser();
 
         if (request.getAmountToAdd() == null ||
                 request.getAmountToAdd().compareTo(BigDecimal.ZERO) <= 0) {
             throw new RuntimeException("Amount to add must be greater than zero");
         }
 
-        // 🔹 Add amount
-        BigDecimal updatedAmount = tx.getAmount().add(request.getAmountToAdd());
-        tx.setAmount(updatedAmount);
-        tx.setUpdatedAt(LocalDateTime.now());
-
-        Transaction updatedTx = transactionRepository.save(tx);
+        // 🔐 Ownership is part of the WHERE clause, a miss is told apart only on this rare path
+        Transaction tx = transactionRepository.addAmount(
+                        request.getTransactionId(),
+                        user.getId(),
+                        request.getAmountToAdd(),
+                        LocalDateTime.now()
+                )
+                .orElseThrow(() -> transactionRepository.existsById(request.getTransactionId())
+                        ? new RuntimeException("Unauthorized access")
+                        : new RuntimeException("Transaction not found"));
 
         // 🔹 Log ADD action
         TransactionLog log = TransactionLog.builder()
@@ -203,21 +362,27 @@ public class TransactionService {
                 .transactionName(tx.getTransactionName())
                 .transactionType(tx.getTransactionType())
                 .amount(request.getAmountToAdd()) // log only added amount
-                .action("Added money to this existing transaction")
+                .action(LogAction.ADDED)
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        transactionLogRepository.save(log);
+        logWriter.append(log);
+        monthlyAggregateService.apply(log);
+        todaySpend.record(tx, log);
 
-        return toResponse(updatedTx);
+        return toResponse(tx);
     }
 
-    @Transactional
+    // 🔹 Soft delete, retried like updateTransaction so the logged amount is never stale
     public void deleteTransaction(UUID transactionId) {
+        withOptimisticRetry(lockRow -> applyDelete(transactionId, lockRow));
+    }
+
+    private Void applyDelete(UUID transactionId, boolean lockRow) {
 
         User user = getCurrentUser();
 
-        Transaction tx = transactionRepository.findById(transactionId)
+        Transaction tx = findForWrite(transactionId, lockRow)
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
 
         // 🔐 Ownership check
@@ -225,6 +390,10 @@ public class TransactionService {
             throw new RuntimeException("Unauthorized access");
         }
 
+        tx.setDeleted(true);       // Mark as deleted
+        tx.setUpdatedAt(LocalDateTime.now()); // Optional: update timestamp
+        transactionRepository.saveAndFlush(tx);
+
         // 📝 Log delete action (AUDIT SAFE)
         TransactionLog deleteLog = TransactionLog.builder()
                 .transactionId(tx.getId())
@@ -233,17 +402,23 @@ public class TransactionService {
                 .transactionName(tx.getTransactionName())
                 .transactionType(tx.getTransactionType())
                 .amount(tx.getAmount())
-                .action("Transaction was deleted")
+                .action(LogAction.DELETED)
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        transactionLogRepository.save(deleteLog);
+        logWriter.append(deleteLog);
+        monthlyAggregateService.apply(deleteLog);
+        todaySpend.record(tx, deleteLog);
+        return null;
+    }
 
-        tx.setDeleted(true);       // Mark as deleted
-        tx.setUpdatedAt(LocalDateTime.now()); // Optional: update timestamp
-        transactionRepository.save(tx);
+    // 🔹 TODAY from the in-memory counter, kept current by the writes above (no replay).
+    // Not transactional: a day built on a miss reads in one statement, no connection is held around it
+    public List<MonthlyTransactionSpentResponse> spentToday() {
+        return todaySpend.spentToday(getCurrentUser().getId());
     }
 
+    // 🔹 Spent per DEBIT transaction in a window, replayed from the logs (TODAY included, see spentToday)
     @Transactional(readOnly = true)
     public List<MonthlyTransactionSpentResponse> calculateSpent(
             String type,
@@ -251,82 +426,288 @@ public class TransactionService {
             Integer month
     ) {
         User user = getCurrentUser();
+        ZoneId zone = timeBuckets.zoneOf(user.getId());
 
-        LocalDateTime start;
-        LocalDateTime end;
+        // Determine the date range, in the user's time zone
+        TimeBuckets.Range window = spentWindow(zone, type, year, month);
 
-        // Determine the date range
-        switch (type.toUpperCase()) {
-            case "TODAY" -> {
-                start = LocalDate.now().atStartOfDay();
-                end = LocalDate.now().atTime(LocalTime.MAX);
-            }
+        // 1️⃣ Get all current DEBIT transactions for the user
+        List<Transaction> debitTransactions = transactionRepository
+                .findByUserIdAndTransactionTypeAndDeletedFalse(user.getId(), TransactionType.DEBIT);
+
+        return spent(user.getId(), zone, debitTransactions, type, year, month, window);
+    }
+
+    // 🔹 Date range of a pie request: TODAY, MONTH or YEAR of the user's time zone, half-open
+    static TimeBuckets.Range spentWindow(ZoneId zone, String type, Integer year, Integer month) {
+        return switch (type.toUpperCase()) {
+            case "TODAY" -> TimeBuckets.day(LocalDate.now(zone), zone);
             case "MONTH" -> {
                 if (year == null || month == null)
                     throw new IllegalArgumentException("Year and month are required for MONTH");
-                start = LocalDate.of(year, month, 1).atStartOfDay();
-                end = start.plusMonths(1).minusSeconds(1);
+                yield TimeBuckets.month(YearMonth.of(year, month), zone);
             }
             case "YEAR" -> {
                 if (year == null)
                     throw new IllegalArgumentException("Year is required for YEAR");
-                start = LocalDate.of(year, 1, 1).atStartOfDay();
-                end = LocalDate.of(year, 12, 31).atTime(LocalTime.MAX);
+                yield TimeBuckets.year(year, zone).all();
             }
             default -> throw new IllegalArgumentException("Invalid type: TODAY, MONTH, YEAR");
-        }
-
-        // 1️⃣ Get all current DEBIT transactions for the user
-        List<Transaction> debitTransactions = transactionRepository
-                .findByUserIdAndTransactionTypeAndDeletedFalse(user.getId(), TransactionType.DEBIT);
+        };
+    }
 
+    // 🔹 Spent per DEBIT transaction inside the window.
+    // Public and transactional: DashboardService calls it through the proxy on a worker thread (the log stream needs one)
+    @Transactional(readOnly = true)
+    public List<MonthlyTransactionSpentResponse> spent(
+            UUID userId,
+            ZoneId zone,
+            List<Transaction> debitTransactions,
+            String type,
+            Integer year,
+            Integer month,
+            TimeBuckets.Range window
+    ) {
         if (debitTransactions.isEmpty()) {
             return Collections.emptyList();
         }
 
-        // 2️⃣ Get all transaction logs for these DEBIT transactions in the date range
+        Map<UUID, String> names = debitTransactions.stream()
+                .collect(Collectors.toMap(Transaction::getId, Transaction::getTransactionName));
+
+        boolean fromAggregates = fromAggregates(window);
+
+        // A single month is already materialized, no replay needed
+        if (fromAggregates && type.equalsIgnoreCase("MONTH")) {
+            return monthlyAggregateRepository
+                    .findAllByUserIdAndYearAndMonthAndDeletedFalseAndAmountNotNull(userId, year, month)
+                    .stream()
+                    .filter(a -> names.containsKey(a.getTransactionId()))
+                    .map(a -> new MonthlyTransactionSpentResponse(
+                            a.getTransactionId(),
+                            names.get(a.getTransactionId()),
+                            a.getAmount()
+                    ))
+                    .toList();
+        }
+
+        // A year is its twelve months folded in order
+        if (fromAggregates && type.equalsIgnoreCase("YEAR")) {
+            return spentFromYearAggregates(userId, names, year);
+        }
+
+        // 2️⃣ Stream the logs of these DEBIT transactions in the date range
         List<UUID> debitTransactionIds = debitTransactions.stream()
                 .map(Transaction::getId)
                 .toList();
 
-        List<TransactionLog> logs = transactionLogRepository
-                .findByTransactionIdInAndCreatedAtBetweenOrderByCreatedAtAsc(
-                        debitTransactionIds, start, end
+        // 3️⃣ Calculate cumulative amount per transaction
+        TransactionLogReplay replay = new TransactionLogReplay(debitTransactionIds.size());
+        LocalDateTime replayFrom = window.start();
+
+        // A YEAR continues from the latest checkpoint, only logs written after it are replayed
+        if (type.equalsIgnoreCase("YEAR")) {
+            int compactedThrough = logCompaction.compactedThrough(year);
+            if (compactedThrough > 0) {
+                for (TransactionLogCheckpoint checkpoint :
+                        checkpointRepository.findLatestByUserId(userId, year, compactedThrough)) {
+                    if (names.containsKey(checkpoint.getTransactionId())) {
+                        replay.seed(checkpoint.getTransactionId(), checkpoint.getTotal(), checkpoint.isDeleted());
+                    }
+                }
+                replayFrom = TimeBuckets.year(year, zone).from(compactedThrough + 1).start();
+            }
+        }
+
+        logWriter.flushPending(userId);
+        try (Stream<TransactionLogEntry> logs =
+                     transactionLogRepository.streamEntriesByTransactionIdInAndCreatedAtInRange(
+                             debitTransactionIds, replayFrom, window.end()
+                     )) {
+            return replaySpent(logs.iterator(), replay, names);
+        }
+    }
+
+    // 🔹 Fold logs (ordered by created_at) into the replay and build the spent view.
+    // Pure in-memory part of spent(), also measured by TransactionLogReplayBenchmark.
+    static List<MonthlyTransactionSpentResponse> replaySpent(
+            Iterator<TransactionLogEntry> logs,
+            TransactionLogReplay replay,
+            Map<UUID, String> names
+    ) {
+        while (logs.hasNext()) {
+            TransactionLogEntry log = logs.next();
+            replay.apply(log.transactionId(), log.action(), log.amount());
+        }
+
+        // 4️⃣ Build response
+        List<MonthlyTransactionSpentResponse> response = new ArrayList<>();
+        replay.forEachTotal((txId, total) ->
+                response.add(new MonthlyTransactionSpentResponse(txId, names.get(txId), total))
+        );
+        return response;
+    }
+
+    private List<MonthlyTransactionSpentResponse> spentFromYearAggregates(
+            UUID userId,
+            Map<UUID, String> names,
+            int year
+    ) {
+        List<MonthlyTransactionAggregate> months = new ArrayList<>(
+                monthlyAggregateRepository.findAllByUserIdAndYearAndDeletedFalseAndAmountNotNull(userId, year)
+        );
+        months.sort(Comparator.comparingInt(MonthlyTransactionAggregate::getMonth));
+
+        // Same rule as LogAction.fold: an absolute month replaces the total, any other month adds to it
+        Map<UUID, BigDecimal> totals = new LinkedHashMap<>();
+        for (MonthlyTransactionAggregate aggregate : months) {
+            if (names.containsKey(aggregate.getTransactionId())) {
+                totals.merge(
+                        aggregate.getTransactionId(),
+                        aggregate.getAmount(),
+                        (total, amount) -> aggregate.isAbsolute() ? amount : total.add(amount)
                 );
+            }
+        }
 
-        // 3️⃣ Calculate cumulative amount per transaction
-        Map<UUID, BigDecimal> totals = new HashMap<>();
-        Map<UUID, String> names = new HashMap<>();
-        Set<UUID> deleted = new HashSet<>();
+        List<MonthlyTransactionSpentResponse> response = new ArrayList<>(totals.size());
+        totals.forEach((txId, total) ->
+                response.add(new MonthlyTransactionSpentResponse(txId, names.get(txId), total))
+        );
+        return response;
+    }
+
+    // 🔹 MONTH spent view from already loaded per-month totals (same result as spent(..., "MONTH", ...))
+    static List<MonthlyTransactionSpentResponse> spentFromMonthTotals(
+            List<Transaction> debitTransactions,
+            Map<UUID, BigDecimal> monthTotals
+    ) {
+        List<MonthlyTransactionSpentResponse> response = new ArrayList<>();
+        for (Transaction tx : debitTransactions) {
+            BigDecimal total = monthTotals.get(tx.getId());
+            if (total != null) {
+                response.add(new MonthlyTransactionSpentResponse(tx.getId(), tx.getTransactionName(), total));
+            }
+        }
+        return response;
+    }
+
+    // 🔹 Per-month totals of a year, from the aggregate table or by replaying the logs.
+    // Public and transactional like spent(), for the dashboard
+    @Transactional(readOnly = true)
+    public List<Map<UUID, BigDecimal>> loadYearByMonth(UUID userId, List<UUID> transactionIds, int year) {
+        if (transactionIds.isEmpty()) {
+            return IntStream.rangeClosed(1, 12)
+                    .<Map<UUID, BigDecimal>>mapToObj(m -> Map.of())
+                    .toList();
+        }
+        TimeBuckets.YearBuckets months = TimeBuckets.year(year, timeBuckets.zoneOf(userId));
+        return fromAggregates(months.all())
+                ? aggregatesYearByMonth(userId, transactionIds, year)
+                : replayYearByMonth(userId, transactionIds, months, year);
+    }
 
-        for (TransactionLog log : logs) {
-            UUID txId = log.getTransactionId();
+    // Windows reaching archived months have no logs left to replay, their months are materialized.
+    // Aggregates are only read once the backfill has completed, until then the logs are replayed.
+    private boolean fromAggregates(TimeBuckets.Range window) {
+        return (readFromMonthlyAggregates || logArchive.reachesArchive(window.start()))
+                && aggregateBackfill.isCompleted();
+    }
+
+    private List<Map<UUID, BigDecimal>> aggregatesYearByMonth(UUID userId, List<UUID> transactionIds, int year) {
+
+        List<Map<UUID, BigDecimal>> monthlyTotals = new ArrayList<>(12);
+        for (int month = 1; month <= 12; month++) {
+            monthlyTotals.add(new HashMap<>());
+        }
+
+        Set<UUID> wanted = new HashSet<>(transactionIds);
+
+        for (MonthlyTransactionAggregate aggregate :
+                monthlyAggregateRepository.findAllByUserIdAndYearAndDeletedFalseAndAmountNotNull(userId, year)) {
+
+            if (wanted.contains(aggregate.getTransactionId())) {
+                monthlyTotals.get(aggregate.getMonth() - 1)
+                        .put(aggregate.getTransactionId(), aggregate.getAmount());
+            }
+        }
+
+        return monthlyTotals;
+    }
 
-            if (deleted.contains(txId)) continue;
+    // 🔹 Replay a whole year of logs in one streamed query.
+    // Compacted months come from their checkpoints, only the logs after them are replayed.
+    // Logs arrive ordered by created_at, so months come one after another and a single
+    // replay is reused for all of them; each month is still folded independently.
+    private List<Map<UUID, BigDecimal>> replayYearByMonth(
+            UUID userId,
+            List<UUID> transactionIds,
+            TimeBuckets.YearBuckets months,
+            int year
+    ) {
+
+        int compactedThrough = logCompaction.compactedThrough(year);
 
-            names.putIfAbsent(txId, log.getTransactionName());
+        List<Map<UUID, BigDecimal>> monthlyTotals = new ArrayList<>(12);
+        for (int month = 1; month <= 12; month++) {
+            monthlyTotals.add(month <= compactedThrough ? new HashMap<>() : Map.of());
+        }
 
-            switch (log.getAction()) {
-                case "Created a new transaction" -> totals.put(txId, log.getAmount());
-                case "Added money to this existing transaction" ->
-                        totals.merge(txId, log.getAmount(), BigDecimal::add);
-                case "Amount for this transaction has been updated" -> totals.put(txId, log.getAmount());
-                case "Transaction was deleted" -> {
-                    totals.remove(txId);
-                    deleted.add(txId);
+        if (compactedThrough > 0) {
+            Set<UUID> wanted = new HashSet<>(transactionIds);
+            for (TransactionLogCheckpoint checkpoint :
+                    checkpointRepository.findAllByUserIdAndYearAndMonthLessThanEqual(userId, year, compactedThrough)) {
+                if (checkpoint.getMonthTotal() != null && wanted.contains(checkpoint.getTransactionId())) {
+                    monthlyTotals.get(checkpoint.getMonth() - 1)
+                            .put(checkpoint.getTransactionId(), checkpoint.getMonthTotal());
                 }
             }
         }
 
-        // 4️⃣ Build response
-        return totals.entrySet()
-                .stream()
-                .map(e -> new MonthlyTransactionSpentResponse(
-                        e.getKey(),
-                        names.get(e.getKey()),
-                        e.getValue()
-                ))
-                .toList();
+        TimeBuckets.Range replayed = months.from(compactedThrough + 1);
+
+        logWriter.flushPending(userId);
+        try (Stream<TransactionLogEntry> logs =
+                     transactionLogRepository.streamEntriesByTransactionIdInAndCreatedAtInRange(
+                             transactionIds,
+                             replayed.start(),
+                             replayed.end()
+                     )) {
+            foldByMonth(logs.iterator(), new TransactionLogReplay(transactionIds.size()), monthlyTotals, months);
+        }
+
+        return monthlyTotals;
+    }
+
+    // 🔹 Fold logs (ordered by created_at, inside the year of months) into per-month totals, each month on its own.
+    // Months without logs keep what monthlyTotals already holds.
+    // Pure in-memory part of the yearly rollups, also measured by TransactionLogReplayBenchmark.
+    static void foldByMonth(
+            Iterator<TransactionLogEntry> logs,
+            TransactionLogReplay replay,
+            List<Map<UUID, BigDecimal>> monthlyTotals,
+            TimeBuckets.YearBuckets months
+    ) {
+        int currentMonth = 0;
+
+        while (logs.hasNext()) {
+            TransactionLogEntry log = logs.next();
+
+            int month = months.monthOf(log.createdAt());
+            if (month != currentMonth) {
+                if (currentMonth != 0) {
+                    monthlyTotals.set(currentMonth - 1, replay.totals());
+                }
+                replay.nextWindow();
+                currentMonth = month;
+            }
+
+            replay.apply(log.transactionId(), log.action(), log.amount());
+        }
+
+        if (currentMonth != 0) {
+            monthlyTotals.set(currentMonth - 1, replay.totals());
+        }
     }
 
     @Transactional(readOnly = true)
@@ -348,63 +729,32 @@ public class TransactionService {
                         transactionType
                 );
 
-        if (transactions.isEmpty()) {
-            return IntStream.rangeClosed(1, 12)
-                    .mapToObj(m -> new MonthlyTransactionSummaryResponse(m, List.of()))
-                    .toList();
-        }
-
-        Map<UUID, String> transactionNames = transactions.stream()
-                .collect(Collectors.toMap(Transaction::getId, Transaction::getTransactionName));
-
         List<UUID> transactionIds = transactions.stream()
                 .map(Transaction::getId)
                 .toList();
 
-        List<MonthlyTransactionSummaryResponse> response = new ArrayList<>();
-
-        // 2️⃣ Month loop
-        for (int month = 1; month <= 12; month++) {
-
-            LocalDateTime start = LocalDate.of(year, month, 1).atStartOfDay();
-            LocalDateTime end = start.plusMonths(1).minusSeconds(1);
-
-            List<TransactionLog> logs =
-                    transactionLogRepository.findByTransactionIdInAndCreatedAtBetweenOrderByCreatedAtAsc(
-                            transactionIds,
-                            start,
-                            end
-                    );
-
-            Map<UUID, BigDecimal> totals = new HashMap<>();
-            Set<UUID> deleted = new HashSet<>();
+        // 2️⃣ One query for the whole year
+        List<Map<UUID, BigDecimal>> monthlyTotals = loadYearByMonth(user.getId(), transactionIds, year);
 
-            for (TransactionLog log : logs) {
-
-                UUID txId = log.getTransactionId();
-                if (deleted.contains(txId)) continue;
-
-                switch (log.getAction()) {
-
-                    case "Created a new transaction" ->
-                            totals.put(txId, log.getAmount());
+        return yearlySummary(transactions, monthlyTotals);
+    }
 
-                    case "Added money to this existing transaction" ->
-                            totals.merge(txId, log.getAmount(), BigDecimal::add);
+    // 🔹 Convert each month to a transaction list, keeping only the given transactions
+    static List<MonthlyTransactionSummaryResponse> yearlySummary(
+            List<Transaction> transactions,
+            List<Map<UUID, BigDecimal>> monthlyTotals
+    ) {
+        Map<UUID, String> transactionNames = transactions.stream()
+                .collect(Collectors.toMap(Transaction::getId, Transaction::getTransactionName));
 
-                    case "Amount for this transaction has been updated" ->
-                            totals.put(txId, log.getAmount());
+        List<MonthlyTransactionSummaryResponse> response = new ArrayList<>(12);
 
-                    case "Transaction was deleted" -> {
-                        totals.remove(txId);
-                        deleted.add(txId);
-                    }
-                }
-            }
+        // 3️⃣ Convert each month to a transaction list
+        for (int month = 1; month <= 12; month++) {
 
-            // 3️⃣ Convert to transaction list
             List<MonthlyTransactionRecordResponse> transactionResponses =
-                    totals.entrySet().stream()
+                    monthlyTotals.get(month - 1).entrySet().stream()
+                            .filter(e -> transactionNames.containsKey(e.getKey()))
                             .map(e -> new MonthlyTransactionRecordResponse(
                                     e.getKey(),
                                     transactionNames.get(e.getKey()),
@@ -434,16 +784,21 @@ public class TransactionService {
         List<Transaction> transactions =
                 transactionRepository.findAllByUserIdAndDeletedFalse(user.getId());
 
-        if (transactions.isEmpty()) {
-            return IntStream.rangeClosed(1, 12)
-                    .mapToObj(m -> new MonthlyTransactionAmountResponse(
-                            m,
-                            BigDecimal.ZERO,
-                            BigDecimal.ZERO
-                    ))
-                    .toList();
-        }
+        List<UUID> transactionIds = transactions.stream()
+                .map(Transaction::getId)
+                .toList();
+
+        // 2️⃣ Reconstruct amounts from one year-wide query
+        List<Map<UUID, BigDecimal>> monthlyTotals = loadYearByMonth(user.getId(), transactionIds, year);
+
+        return yearlyCreditDebit(transactions, monthlyTotals);
+    }
 
+    // 🔹 Split CREDIT & DEBIT totals per month
+    static List<MonthlyTransactionAmountResponse> yearlyCreditDebit(
+            List<Transaction> transactions,
+            List<Map<UUID, BigDecimal>> monthlyTotals
+    ) {
         // Map transactionId → type
         Map<UUID, TransactionType> transactionTypes =
                 transactions.stream()
@@ -452,56 +807,15 @@ public class TransactionService {
                                 Transaction::getTransactionType
                         ));
 
-        List<UUID> transactionIds = new ArrayList<>(transactionTypes.keySet());
+        List<MonthlyTransactionAmountResponse> response = new ArrayList<>(12);
 
-        List<MonthlyTransactionAmountResponse> response = new ArrayList<>();
-
-        // 2️⃣ Loop months
+        // 3️⃣ Split CREDIT & DEBIT totals per month
         for (int month = 1; month <= 12; month++) {
 
-            LocalDateTime start = LocalDate.of(year, month, 1).atStartOfDay();
-            LocalDateTime end = start.plusMonths(1).minusSeconds(1);
-
-            List<TransactionLog> logs =
-                    transactionLogRepository
-                            .findByTransactionIdInAndCreatedAtBetweenOrderByCreatedAtAsc(
-                                    transactionIds,
-                                    start,
-                                    end
-                            );
-
-            Map<UUID, BigDecimal> totals = new HashMap<>();
-            Set<UUID> deleted = new HashSet<>();
-
-            // 3️⃣ Reconstruct amounts from logs
-            for (TransactionLog log : logs) {
-
-                UUID txId = log.getTransactionId();
-                if (deleted.contains(txId)) continue;
-
-                switch (log.getAction()) {
-
-                    case "Created a new transaction" ->
-                            totals.put(txId, log.getAmount());
-
-                    case "Added money to this existing transaction" ->
-                            totals.merge(txId, log.getAmount(), BigDecimal::add);
-
-                    case "Amount for this transaction has been updated" ->
-                            totals.put(txId, log.getAmount());
-
-                    case "Transaction was deleted" -> {
-                        totals.remove(txId);
-                        deleted.add(txId);
-                    }
-                }
-            }
-
-            // 4️⃣ Split CREDIT & DEBIT totals
             BigDecimal creditAmount = BigDecimal.ZERO;
             BigDecimal debitAmount = BigDecimal.ZERO;
 
-            for (Map.Entry<UUID, BigDecimal> entry : totals.entrySet()) {
+            for (Map.Entry<UUID, BigDecimal> entry : monthlyTotals.get(month - 1).entrySet()) {
 
                 TransactionType type = transactionTypes.get(entry.getKey());
                 BigDecimal amount = entry.getValue();
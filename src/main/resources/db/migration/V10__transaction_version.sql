@@ -0,0 +1,5 @@
+-- Optimistic locking on transactions: full updates and deletes check the version they read,
+-- the atomic add-amount update bumps it in the same statement.
+
+ALTER TABLE transactions
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,17 @@
+-- Durable tier of the Idempotency-Key store (spendify.idempotency.database.enabled).
+-- One row per user and key; the response columns stay NULL while the first request is running.
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id           varchar(300)  NOT NULL,
+    fingerprint  varchar(64)   NOT NULL,
+    status       integer,
+    content_type varchar(255),
+    body         bytea,
+    created_at   timestamp(6)  NOT NULL,
+    expires_at   timestamp(6)  NOT NULL,
+    CONSTRAINT idempotency_keys_pkey PRIMARY KEY (id)
+);
+
+-- The purge job drops expired keys
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at
+    ON idempotency_keys (expires_at);
@@ -0,0 +1,21 @@
+-- Write-behind mode of the audit log (spendify.logs.write-behind.enabled): mutations append their log here,
+-- in the request transaction, and TransactionLogWriter moves the rows to transaction_logs in batches.
+-- A plain heap table with only the primary key and a user index: no foreign keys and no partition routing
+-- on the request path.
+
+CREATE TABLE IF NOT EXISTS transaction_log_outbox (
+    id               uuid          NOT NULL,
+    user_id          uuid          NOT NULL,
+    transaction_id   uuid,
+    transaction_name varchar(255)  NOT NULL,
+    transaction_type varchar(255)  NOT NULL,
+    amount           numeric(12,2),
+    action           smallint      NOT NULL,
+    created_at       timestamp(6)  NOT NULL,
+    bank_id          integer,
+    CONSTRAINT transaction_log_outbox_pkey PRIMARY KEY (id)
+);
+
+-- Log reads flush the pending rows of their user first
+CREATE INDEX IF NOT EXISTS idx_transaction_log_outbox_user
+    ON transaction_log_outbox (user_id);
@@ -0,0 +1,5 @@
+-- Per-user time zone of the analytics buckets (days, months, years), an IANA id such as 'Europe/Berlin'.
+-- NULL means spendify.time.default-zone.
+
+ALTER TABLE users
+    ADD COLUMN IF NOT EXISTS time_zone VARCHAR(64);
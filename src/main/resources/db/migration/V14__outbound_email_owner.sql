@@ -0,0 +1,8 @@
+-- Owner of each /api/send-query message, its status is only shown to the user who sent it.
+-- Rows queued before this column existed keep NULL and are no longer visible through the API.
+
+ALTER TABLE outbound_emails
+    ADD COLUMN IF NOT EXISTS user_id uuid;
+
+CREATE INDEX IF NOT EXISTS idx_outbound_emails_user
+    ON outbound_emails (user_id);
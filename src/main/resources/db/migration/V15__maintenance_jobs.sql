@@ -0,0 +1,17 @@
+-- One-off maintenance jobs that have completed, one row per job.
+-- 'monthly-aggregates.backfill': monthly_transaction_aggregates has been rebuilt from the logs
+-- (MonthlyTransactionAggregateBackfill). Until then analytics replay the logs and no month is archived.
+
+CREATE TABLE IF NOT EXISTS maintenance_jobs (
+    name         varchar(100)  NOT NULL,
+    completed_at timestamp(6)  NOT NULL,
+    CONSTRAINT maintenance_jobs_pkey PRIMARY KEY (name)
+);
+
+-- Without any log there is nothing to backfill, the aggregates are complete from the first write on
+INSERT INTO maintenance_jobs (name, completed_at)
+SELECT 'monthly-aggregates.backfill', now()
+WHERE NOT EXISTS (SELECT 1 FROM transaction_logs)
+  AND NOT EXISTS (SELECT 1 FROM transaction_logs_archive)
+  AND NOT EXISTS (SELECT 1 FROM transaction_log_outbox)
+ON CONFLICT (name) DO NOTHING;
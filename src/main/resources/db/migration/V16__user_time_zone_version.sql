@@ -0,0 +1,5 @@
+-- Bumped by every time zone change. Writes that store month buckets (monthly_transaction_aggregates) use a
+-- cached zone and check its version in the same statement, so they need no lock and no extra read of users.
+
+ALTER TABLE users
+    ADD COLUMN IF NOT EXISTS time_zone_version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,67 @@
+-- Baseline of the schema previously generated by Hibernate (ddl-auto=update).
+-- Every statement is IF NOT EXISTS so existing databases are left untouched.
+
+CREATE TABLE IF NOT EXISTS users (
+    id              uuid         NOT NULL,
+    email           varchar(255) NOT NULL,
+    name            varchar(255),
+    profile_picture varchar(255),
+    created_at      timestamp(6) with time zone NOT NULL,
+    CONSTRAINT users_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS banks (
+    id        integer GENERATED BY DEFAULT AS IDENTITY,
+    bank_name varchar(255) NOT NULL,
+    CONSTRAINT banks_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_banks_bank_name UNIQUE (bank_name)
+);
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id               uuid          NOT NULL,
+    user_id          uuid          NOT NULL,
+    transaction_name varchar(255)  NOT NULL,
+    transaction_type varchar(255)  NOT NULL,
+    amount           numeric(12,2) NOT NULL,
+    created_at       timestamp(6)  NOT NULL,
+    updated_at       timestamp(6)  NOT NULL,
+    bank_id          integer,
+    deleted          boolean       NOT NULL,
+    CONSTRAINT transactions_pkey PRIMARY KEY (id),
+    CONSTRAINT transactions_transaction_type_check CHECK (transaction_type IN ('CREDIT', 'DEBIT')),
+    CONSTRAINT fk_transactions_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_transactions_bank FOREIGN KEY (bank_id) REFERENCES banks (id)
+);
+
+CREATE TABLE IF NOT EXISTS transaction_logs (
+    id               uuid          NOT NULL,
+    user_id          uuid          NOT NULL,
+    transaction_id   uuid,
+    transaction_name varchar(255)  NOT NULL,
+    transaction_type varchar(255)  NOT NULL,
+    amount           numeric(12,2),
+    action           smallint      NOT NULL,
+    created_at       timestamp(6)  NOT NULL,
+    bank_id          integer,
+    CONSTRAINT transaction_logs_pkey PRIMARY KEY (id),
+    CONSTRAINT transaction_logs_transaction_type_check CHECK (transaction_type IN ('CREDIT', 'DEBIT')),
+    CONSTRAINT fk_transaction_logs_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_transaction_logs_bank FOREIGN KEY (bank_id) REFERENCES banks (id)
+);
+
+CREATE TABLE IF NOT EXISTS monthly_transaction_aggregates (
+    id             uuid          NOT NULL,
+    user_id        uuid          NOT NULL,
+    transaction_id uuid          NOT NULL,
+    year           integer       NOT NULL,
+    month          integer       NOT NULL,
+    amount         numeric(12,2),
+    deleted        boolean       NOT NULL,
+    updated_at     timestamp(6)  NOT NULL,
+    CONSTRAINT monthly_transaction_aggregates_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_monthly_aggregate_transaction_period UNIQUE (transaction_id, year, month)
+);
+
+CREATE INDEX IF NOT EXISTS idx_monthly_aggregate_user_period
+    ON monthly_transaction_aggregates (user_id, year, month);
@@ -0,0 +1,23 @@
+-- transaction_logs.action used to hold free-text labels, it now stores LogAction codes.
+-- Databases created from V1 already have the smallint column.
+
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1
+        FROM information_schema.columns
+        WHERE table_schema = current_schema()
+          AND table_name = 'transaction_logs'
+          AND column_name = 'action'
+          AND data_type = 'character varying'
+    ) THEN
+        ALTER TABLE transaction_logs
+            ALTER COLUMN action TYPE smallint
+            USING CASE action
+                WHEN 'Created a new transaction' THEN 1
+                WHEN 'Amount for this transaction has been updated' THEN 2
+                WHEN 'Added money to this existing transaction' THEN 3
+                WHEN 'Transaction was deleted' THEN 4
+            END;
+    END IF;
+END $$;
@@ -0,0 +1,26 @@
+-- Indexes for the queries the service actually runs.
+
+-- findByUserIdAndTransactionTypeAndDeletedFalse, findAllByUserIdAndDeletedFalse
+CREATE INDEX IF NOT EXISTS idx_transactions_user_type_active
+    ON transactions (user_id, transaction_type)
+    WHERE deleted = false;
+
+-- findAllByUserIdAndDeletedFalseOrderByUpdatedAtDesc
+CREATE INDEX IF NOT EXISTS idx_transactions_user_updated_active
+    ON transactions (user_id, updated_at DESC)
+    WHERE deleted = false;
+
+-- nightly cleanup: findAllByDeletedTrueAndUpdatedAtBefore
+CREATE INDEX IF NOT EXISTS idx_transactions_deleted_updated
+    ON transactions (updated_at)
+    WHERE deleted = true;
+
+-- analytics replay: transaction_id IN (...) AND created_at BETWEEN ...
+-- INCLUDE lets the slim TransactionLogEntry projection run as an index-only scan
+CREATE INDEX IF NOT EXISTS idx_transaction_logs_transaction_created
+    ON transaction_logs (transaction_id, created_at)
+    INCLUDE (action, amount);
+
+-- activity log and aggregate backfill: user_id ordered by created_at
+CREATE INDEX IF NOT EXISTS idx_transaction_logs_user_created
+    ON transaction_logs (user_id, created_at DESC);
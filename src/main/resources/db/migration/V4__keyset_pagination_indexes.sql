@@ -0,0 +1,12 @@
+-- Keyset pagination orders by (updated_at, id) / (created_at, id), include id as the tie-breaker.
+
+CREATE INDEX IF NOT EXISTS idx_transactions_user_updated_id_active
+    ON transactions (user_id, updated_at DESC, id DESC)
+    WHERE deleted = false;
+
+DROP INDEX IF EXISTS idx_transactions_user_updated_active;
+
+CREATE INDEX IF NOT EXISTS idx_transaction_logs_user_created_id
+    ON transaction_logs (user_id, created_at DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_transaction_logs_user_created;
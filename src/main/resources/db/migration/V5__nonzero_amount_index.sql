@@ -0,0 +1,5 @@
+-- The nightly reset only touches rows that still carry an amount and walks them in id order.
+
+CREATE INDEX IF NOT EXISTS idx_transactions_nonzero_amount
+    ON transactions (id)
+    WHERE amount <> 0;
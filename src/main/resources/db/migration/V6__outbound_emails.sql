@@ -0,0 +1,21 @@
+-- Outbox for /api/send-query: messages are stored first and delivered by background workers.
+
+CREATE TABLE IF NOT EXISTS outbound_emails (
+    id              uuid          NOT NULL,
+    recipient       varchar(255)  NOT NULL,
+    subject         varchar(255)  NOT NULL,
+    body            text          NOT NULL,
+    status          varchar(255)  NOT NULL,
+    attempts        integer       NOT NULL,
+    next_attempt_at timestamp(6)  NOT NULL,
+    last_error      varchar(1000),
+    created_at      timestamp(6)  NOT NULL,
+    sent_at         timestamp(6),
+    CONSTRAINT outbound_emails_pkey PRIMARY KEY (id),
+    CONSTRAINT outbound_emails_status_check CHECK (status IN ('QUEUED', 'SENDING', 'SENT', 'FAILED'))
+);
+
+-- The sweeper only looks at undelivered rows
+CREATE INDEX IF NOT EXISTS idx_outbound_emails_due
+    ON outbound_emails (next_attempt_at)
+    WHERE status IN ('QUEUED', 'SENDING');
@@ -0,0 +1,7 @@
+-- absolute = the month contains a CREATED/UPDATED log, so its amount does not depend on earlier months.
+-- With it, consecutive months fold into a longer window (e.g. a YEAR total) without the raw logs.
+-- Existing rows are not derived here: months are bucketed in each user's zone, which SQL does not know.
+-- They stay false until MonthlyTransactionAggregateBackfill rebuilds them, analytics wait for that run.
+
+ALTER TABLE monthly_transaction_aggregates
+    ADD COLUMN IF NOT EXISTS absolute boolean NOT NULL DEFAULT false;
@@ -0,0 +1,71 @@
+-- transaction_logs becomes range-partitioned by month on created_at (partitions transaction_logs_pYYYYMM).
+-- Closed months older than spendify.logs.hot-months are later moved to transaction_logs_archive
+-- by TransactionLogArchiveService; analytics for those months read monthly_transaction_aggregates.
+-- The partition key has to be part of the primary key, hence (id, created_at).
+
+ALTER TABLE transaction_logs RENAME TO transaction_logs_unpartitioned;
+ALTER INDEX transaction_logs_pkey RENAME TO transaction_logs_unpartitioned_pkey;
+DROP INDEX IF EXISTS idx_transaction_logs_transaction_created;
+DROP INDEX IF EXISTS idx_transaction_logs_user_created_id;
+DROP INDEX IF EXISTS idx_transaction_logs_user_created;
+
+CREATE TABLE transaction_logs (
+    id               uuid          NOT NULL,
+    user_id          uuid          NOT NULL,
+    transaction_id   uuid,
+    transaction_name varchar(255)  NOT NULL,
+    transaction_type varchar(255)  NOT NULL,
+    amount           numeric(12,2),
+    action           smallint      NOT NULL,
+    created_at       timestamp(6)  NOT NULL,
+    bank_id          integer,
+    CONSTRAINT transaction_logs_pkey PRIMARY KEY (id, created_at),
+    CONSTRAINT transaction_logs_transaction_type_check CHECK (transaction_type IN ('CREDIT', 'DEBIT')),
+    CONSTRAINT fk_transaction_logs_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_transaction_logs_bank FOREIGN KEY (bank_id) REFERENCES banks (id)
+) PARTITION BY RANGE (created_at);
+
+-- Catches rows for a month whose partition does not exist yet; maintenance moves them out
+CREATE TABLE transaction_logs_default PARTITION OF transaction_logs DEFAULT;
+
+-- One partition per month from the oldest log up to three months ahead
+DO $$
+DECLARE
+    month_start timestamp;
+    last_month  timestamp := date_trunc('month', now()::timestamp) + interval '3 months';
+BEGIN
+    SELECT coalesce(date_trunc('month', min(created_at)), date_trunc('month', now()::timestamp))
+    INTO month_start
+    FROM transaction_logs_unpartitioned;
+
+    WHILE month_start <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF transaction_logs FOR VALUES FROM (%L) TO (%L)',
+            'transaction_logs_p' || to_char(month_start, 'YYYYMM'),
+            month_start,
+            month_start + interval '1 month'
+        );
+        month_start := month_start + interval '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO transaction_logs
+    (id, user_id, transaction_id, transaction_name, transaction_type, amount, action, created_at, bank_id)
+SELECT id, user_id, transaction_id, transaction_name, transaction_type, amount, action, created_at, bank_id
+FROM transaction_logs_unpartitioned;
+
+DROP TABLE transaction_logs_unpartitioned;
+
+-- Created on the parent so every partition gets them
+CREATE INDEX idx_transaction_logs_transaction_created
+    ON transaction_logs (transaction_id, created_at)
+    INCLUDE (action, amount);
+
+CREATE INDEX idx_transaction_logs_user_created_id
+    ON transaction_logs (user_id, created_at DESC, id DESC);
+
+-- Cold tier: archived month partitions are detached from transaction_logs and attached here as they are
+CREATE TABLE transaction_logs_archive (
+    LIKE transaction_logs INCLUDING DEFAULTS INCLUDING CONSTRAINTS,
+    CONSTRAINT transaction_logs_archive_pkey PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
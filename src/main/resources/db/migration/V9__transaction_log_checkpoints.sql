@@ -0,0 +1,26 @@
+-- Per-transaction checkpoints compacted from transaction_logs once a month has closed.
+-- total / deleted: running state from January 1 up to the end of the month (what a YEAR replay holds there)
+-- month_total:     the month replayed on its own (what a per-month rollup holds)
+-- Only transactions with logs in the month get a row, the latest row of a year is the current state.
+
+CREATE TABLE IF NOT EXISTS transaction_log_checkpoints (
+    id             uuid          NOT NULL,
+    user_id        uuid          NOT NULL,
+    transaction_id uuid          NOT NULL,
+    year           integer       NOT NULL,
+    month          integer       NOT NULL,
+    total          numeric(12,2),
+    deleted        boolean       NOT NULL,
+    month_total    numeric(12,2),
+    compacted_at   timestamp(6)  NOT NULL,
+    CONSTRAINT transaction_log_checkpoints_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_log_checkpoint_transaction_period UNIQUE (transaction_id, year, month)
+);
+
+-- Replay seeds: latest checkpoint per transaction of one user in a year
+CREATE INDEX IF NOT EXISTS idx_log_checkpoint_user_period
+    ON transaction_log_checkpoints (user_id, year, month);
+
+-- Compaction watermark: last compacted month of a year
+CREATE INDEX IF NOT EXISTS idx_log_checkpoint_period
+    ON transaction_log_checkpoints (year, month);
@@ -0,0 +1,59 @@
+package com.app.money_tracker_backend.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latency samples of one endpoint. Every sample is kept, percentiles are exact
+ * (a few hundred thousand longs per run are cheap next to the HTTP calls).
+ */
+class LatencyRecorder {
+
+	private long[] samples = new long[1024];
+	private int count;
+	private int errors;
+
+	synchronized void record(long nanos, boolean ok) {
+		if (count == samples.length) {
+			samples = Arrays.copyOf(samples, count * 2);
+		}
+		samples[count++] = nanos;
+		if (!ok) {
+			errors++;
+		}
+	}
+
+	synchronized Summary summarize(double seconds) {
+		long[] sorted = Arrays.copyOf(samples, count);
+		Arrays.sort(sorted);
+		return new Summary(
+				count,
+				errors,
+				count / seconds,
+				millis(sorted, 0.50),
+				millis(sorted, 0.90),
+				millis(sorted, 0.99),
+				millis(sorted, 0.999),
+				count == 0 ? 0 : sorted[count - 1] / 1_000_000.0
+		);
+	}
+
+	// nearest-rank percentile
+	private static double millis(long[] sorted, double percentile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int rank = (int) Math.ceil(percentile * sorted.length);
+		return sorted[Math.max(rank, 1) - 1] / 1_000_000.0;
+	}
+
+	record Summary(
+			int requests,
+			int errors,
+			double throughput,
+			double p50,
+			double p90,
+			double p99,
+			double p999,
+			double max
+	) {}
+}
@@ -0,0 +1,293 @@
+package com.app.money_tracker_backend.loadtest;
+
+import com.app.money_tracker_backend.loadtest.WorkloadMix.Operation;
+import com.app.money_tracker_backend.model.User;
+import com.app.money_tracker_backend.repository.UserRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Year;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test: the whole application on a random port, backed by an embedded PostgreSQL,
+ * driven over HTTP by synthetic users (see LoadTestSecurityConfig).
+ * Reports throughput and latency percentiles per endpoint, and writes them to target/loadtest-report.csv.
+ *
+ * Run: ./mvnw -Ploadtest test [-Dloadtest.mix=dashboard -Dloadtest.concurrency=64 ...]
+ * Settings (system properties, defaults in brackets):
+ *   loadtest.users [50], loadtest.seed-transactions [20], loadtest.concurrency [32],
+ *   loadtest.warmup [PT10S], loadtest.duration [PT30S], loadtest.mix [mixed], loadtest.max-error-rate [0.01]
+ * Application settings apply as usual, e.g. -DVIRTUAL_THREADS_ENABLED=true -DDB_POOL_MAX_SIZE=10.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "spendify.loadtest", matches = "true")
+@SpringBootTest(
+		webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {
+				"GOOGLE_CLIENT_ID=load-test",
+				"GOOGLE_CLIENT_SECRET=load-test",
+				"BACKEND_URL=http://localhost",
+				"EMAIL_ID=load-test@spendify.test",
+				"EMAIL_PASSWORD=load-test",
+				"spring.jpa.show-sql=false"
+		}
+)
+@Import(LoadTestSecurityConfig.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class LoadTestHarness {
+
+	private static EmbeddedPostgres postgres;
+
+	private final int userCount = Integer.getInteger("loadtest.users", 50);
+	private final int seedTransactions = Integer.getInteger("loadtest.seed-transactions", 20);
+	private final int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+	private final Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+	private final Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+	private final WorkloadMix mix = WorkloadMix.valueOf(System.getProperty("loadtest.mix", "mixed").toUpperCase());
+	private final double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+
+	private final int year = Year.now().getValue();
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JsonMapper jsonMapper;
+
+	@Autowired
+	private Environment environment;
+
+	private final HttpClient http = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+
+	private record SyntheticUser(String email, List<UUID> transactionIds) {}
+
+	@DynamicPropertySource
+	static void embeddedDatabase(DynamicPropertyRegistry registry) throws IOException {
+		postgres = EmbeddedPostgres.builder().start();
+		// the application context is closed after the class, the database when the JVM exits
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			try {
+				postgres.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}));
+
+		registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+		registry.add("spring.datasource.username", () -> "postgres");
+		registry.add("spring.datasource.password", () -> "postgres");
+	}
+
+	@Test
+	void run() throws Exception {
+		List<SyntheticUser> users = seedUsers();
+
+		log.info("Load test warm-up: {}", warmup);
+		runPhase(users, warmup);
+
+		log.info("Load test: mix {}, {} users, {} workers, {}", mix, userCount, concurrency, duration);
+		Map<String, LatencyRecorder.Summary> report = runPhase(users, duration);
+
+		printReport(report);
+		writeCsv(report, Path.of("target", "loadtest-report.csv"));
+
+		LatencyRecorder.Summary total = report.get("TOTAL");
+		assertThat(total.requests()).isPositive();
+		assertThat((double) total.errors() / total.requests()).isLessThanOrEqualTo(maxErrorRate);
+	}
+
+	// 🔹 Users are inserted directly (login is not what is measured), their transactions through the API
+	private List<SyntheticUser> seedUsers() throws IOException, InterruptedException {
+		List<SyntheticUser> users = new ArrayList<>(userCount);
+
+		for (int i = 0; i < userCount; i++) {
+			User user = new User();
+			user.setEmail("load-test-" + i + "@spendify.test");
+			user.setName("Load test " + i);
+			userRepository.save(user);
+
+			SyntheticUser synthetic = new SyntheticUser(user.getEmail(), new CopyOnWriteArrayList<>());
+			Random random = new Random(i);
+
+			List<Map<String, Object>> batch = new ArrayList<>(seedTransactions);
+			for (int t = 0; t < seedTransactions; t++) {
+				batch.add(transactionBody(random));
+			}
+
+			HttpResponse<String> response = send(synthetic, "POST", "/api/transactions/batch", batch);
+			assertThat(response.statusCode()).isEqualTo(200);
+			for (JsonNode transaction : jsonMapper.readTree(response.body())) {
+				synthetic.transactionIds().add(UUID.fromString(transaction.get("id").asString()));
+			}
+			users.add(synthetic);
+		}
+
+		log.info("Seeded {} users with {} transactions each", userCount, seedTransactions);
+		return users;
+	}
+
+	// 🔹 concurrency workers, each picking a random user and operation until the phase ends
+	private Map<String, LatencyRecorder.Summary> runPhase(List<SyntheticUser> users, Duration phase) {
+		Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+		for (Operation operation : Operation.values()) {
+			recorders.put(operation, new LatencyRecorder());
+		}
+		LatencyRecorder total = new LatencyRecorder();
+
+		long startedAt = System.nanoTime();
+		long deadline = startedAt + phase.toNanos();
+
+		try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int w = 0; w < concurrency; w++) {
+				Random random = new Random(w);
+				workers.submit(() -> {
+					while (System.nanoTime() < deadline) {
+						SyntheticUser user = users.get(random.nextInt(users.size()));
+						Operation operation = mix.pick(random);
+
+						long start = System.nanoTime();
+						boolean ok;
+						try {
+							ok = execute(operation, user, random);
+						} catch (IOException e) {
+							ok = false;
+						}
+						long took = System.nanoTime() - start;
+
+						recorders.get(operation).record(took, ok);
+						total.record(took, ok);
+					}
+					return null;
+				});
+			}
+		}
+
+		double seconds = (System.nanoTime() - startedAt) / 1e9;
+		Map<String, LatencyRecorder.Summary> summaries = new LinkedHashMap<>();
+		recorders.forEach((operation, recorder) -> {
+			LatencyRecorder.Summary summary = recorder.summarize(seconds);
+			if (summary.requests() > 0) {
+				summaries.put(operation.endpoint, summary);
+			}
+		});
+		summaries.put("TOTAL", total.summarize(seconds));
+		return summaries;
+	}
+
+	private boolean execute(Operation operation, SyntheticUser user, Random random)
+			throws IOException, InterruptedException {
+
+		UUID transactionId = user.transactionIds().get(random.nextInt(user.transactionIds().size()));
+
+		HttpResponse<String> response = switch (operation) {
+			case CREATE -> send(user, "POST", "/api/transactions/createTask", transactionBody(random));
+			case UPDATE -> send(user, "PUT", "/api/transactions/" + transactionId, transactionBody(random));
+			case ADD_AMOUNT -> send(user, "POST", "/api/transactions/add-amount", Map.of(
+					"transactionId", transactionId,
+					"amountToAdd", amount(random)
+			));
+			case LIST -> send(user, "GET", "/api/transactions", null);
+			case LIST_PAGE -> send(user, "GET", "/api/transactions/page?limit=50", null);
+			case LOGS_PAGE -> send(user, "GET", "/api/transactions/logs/page?limit=50", null);
+			case DASHBOARD -> send(user, "GET", "/api/dashboard", null);
+			case PIE_YEAR -> send(user, "GET", "/api/transactions/pie?type=YEAR&year=" + year, null);
+			case YEARLY_SUMMARY -> send(user, "GET",
+					"/api/transactions/yearly-summary?transactionType=DEBIT&year=" + year, null);
+		};
+
+		boolean ok = response.statusCode() / 100 == 2;
+		if (ok && operation == Operation.CREATE) {
+			user.transactionIds().add(UUID.fromString(jsonMapper.readTree(response.body()).get("id").asString()));
+		}
+		return ok;
+	}
+
+	private HttpResponse<String> send(SyntheticUser user, String method, String path, Object body)
+			throws IOException, InterruptedException {
+
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.timeout(Duration.ofSeconds(30))
+				.header(LoadTestSecurityConfig.USER_HEADER, user.email());
+
+		if (body == null) {
+			request.method(method, HttpRequest.BodyPublishers.noBody());
+		} else {
+			request.header("Content-Type", "application/json")
+					.method(method, HttpRequest.BodyPublishers.ofString(jsonMapper.writeValueAsString(body)));
+		}
+		return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static Map<String, Object> transactionBody(Random random) {
+		return Map.of(
+				"transactionName", "Load " + random.nextInt(1000),
+				"transactionType", random.nextInt(4) == 0 ? "CREDIT" : "DEBIT",
+				"amount", amount(random)
+		);
+	}
+
+	private static BigDecimal amount(Random random) {
+		return BigDecimal.valueOf(1 + random.nextInt(100_000), 2);
+	}
+
+	private void printReport(Map<String, LatencyRecorder.Summary> report) {
+		StringBuilder table = new StringBuilder()
+				.append(String.format("%nLoad test report: mix %s, %d users, %d workers, %s, virtual threads %s, pool %s%n",
+						mix, userCount, concurrency, duration,
+						environment.getProperty("spring.threads.virtual.enabled"),
+						environment.getProperty("spring.datasource.hikari.maximum-pool-size")))
+				.append(String.format("%-40s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+						"endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+
+		report.forEach((endpoint, s) -> table.append(String.format(
+				"%-40s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+				endpoint, s.requests(), s.errors(), s.throughput(), s.p50(), s.p90(), s.p99(), s.p999(), s.max())));
+
+		log.info(table.toString());
+	}
+
+	private void writeCsv(Map<String, LatencyRecorder.Summary> report, Path file) throws IOException {
+		List<String> lines = new ArrayList<>();
+		lines.add("endpoint,requests,errors,throughput,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+		report.forEach((endpoint, s) -> lines.add(String.format(Locale.ROOT,
+				"\"%s\",%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f",
+				endpoint, s.requests(), s.errors(), s.throughput(), s.p50(), s.p90(), s.p99(), s.p999(), s.max())));
+
+		Files.createDirectories(file.getParent());
+		Files.write(file, lines);
+	}
+}
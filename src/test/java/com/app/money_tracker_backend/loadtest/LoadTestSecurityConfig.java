@@ -0,0 +1,86 @@
+package com.app.money_tracker_backend.loadtest;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test-only security for the load-test harness: the synthetic user named in the
+ * X-Load-Test-User header becomes an OAuth2User principal, the same shape the Google login produces,
+ * so the API runs unchanged without an OAuth2 round trip. Stateless, every request is authenticated again.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class LoadTestSecurityConfig {
+
+	public static final String USER_HEADER = "X-Load-Test-User";
+
+	@Bean
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	SecurityFilterChain loadTestSecurityFilterChain(HttpSecurity http) throws Exception {
+		http
+				.securityMatcher("/api/**")
+				.csrf(csrf -> csrf.disable())
+				.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+				.addFilterBefore(new SyntheticUserFilter(), AuthorizationFilter.class)
+				.authorizeHttpRequests(auth -> auth.anyRequest().authenticated());
+
+		return http.build();
+	}
+
+	static class SyntheticUserFilter extends OncePerRequestFilter {
+
+		private static final List<GrantedAuthority> AUTHORITIES = AuthorityUtils.createAuthorityList("OAUTH2_USER");
+
+		private final SecurityContextHolderStrategy contextHolder = SecurityContextHolder.getContextHolderStrategy();
+
+		@Override
+		protected void doFilterInternal(
+				HttpServletRequest request,
+				HttpServletResponse response,
+				FilterChain chain
+		) throws ServletException, IOException {
+			String email = request.getHeader(USER_HEADER);
+			if (email == null) {
+				chain.doFilter(request, response);
+				return;
+			}
+
+			OAuth2User principal = new DefaultOAuth2User(
+					AUTHORITIES,
+					Map.of("sub", email, "email", email, "name", email),
+					"email"
+			);
+
+			SecurityContext context = contextHolder.createEmptyContext();
+			context.setAuthentication(new OAuth2AuthenticationToken(principal, AUTHORITIES, "google"));
+			contextHolder.setContext(context);
+			try {
+				chain.doFilter(request, response);
+			} finally {
+				contextHolder.clearContext();
+			}
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package com.app.money_tracker_backend.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Scripted workload mixes: how often each operation is picked (relative weights).
+ * Select one with -Dloadtest.mix=mixed|writes|reads|dashboard.
+ */
+enum WorkloadMix {
+
+	// a typical session: some writes, mostly list reads and charts
+	MIXED(Map.of(
+			Operation.CREATE, 10,
+			Operation.UPDATE, 5,
+			Operation.ADD_AMOUNT, 15,
+			Operation.LIST, 20,
+			Operation.LIST_PAGE, 10,
+			Operation.LOGS_PAGE, 10,
+			Operation.DASHBOARD, 15,
+			Operation.PIE_YEAR, 10,
+			Operation.YEARLY_SUMMARY, 5
+	)),
+
+	WRITES(Map.of(
+			Operation.CREATE, 30,
+			Operation.UPDATE, 20,
+			Operation.ADD_AMOUNT, 50
+	)),
+
+	READS(Map.of(
+			Operation.LIST, 40,
+			Operation.LIST_PAGE, 30,
+			Operation.LOGS_PAGE, 30
+	)),
+
+	DASHBOARD(Map.of(
+			Operation.DASHBOARD, 50,
+			Operation.PIE_YEAR, 25,
+			Operation.YEARLY_SUMMARY, 25
+	));
+
+	enum Operation {
+		CREATE("POST /api/transactions/createTask"),
+		UPDATE("PUT /api/transactions/{id}"),
+		ADD_AMOUNT("POST /api/transactions/add-amount"),
+		LIST("GET /api/transactions"),
+		LIST_PAGE("GET /api/transactions/page"),
+		LOGS_PAGE("GET /api/transactions/logs/page"),
+		DASHBOARD("GET /api/dashboard"),
+		PIE_YEAR("GET /api/transactions/pie?type=YEAR"),
+		YEARLY_SUMMARY("GET /api/transactions/yearly-summary");
+
+		final String endpoint;
+
+		Operation(String endpoint) {
+			this.endpoint = endpoint;
+		}
+	}
+
+	private final Operation[] operations;
+	private final int[] cumulativeWeights;
+
+	WorkloadMix(Map<Operation, Integer> weights) {
+		Map<Operation, Integer> ordered = new EnumMap<>(weights);
+		this.operations = ordered.keySet().toArray(Operation[]::new);
+		this.cumulativeWeights = new int[operations.length];
+
+		int total = 0;
+		for (int i = 0; i < operations.length; i++) {
+			total += ordered.get(operations[i]);
+			cumulativeWeights[i] = total;
+		}
+	}
+
+	Operation pick(Random random) {
+		int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+		for (int i = 0; i < cumulativeWeights.length; i++) {
+			if (roll < cumulativeWeights[i]) {
+				return operations[i];
+			}
+		}
+		return operations[operations.length - 1];
+	}
+}
@@ -0,0 +1,79 @@
+package com.app.money_tracker_backend.service;
+
+import com.app.money_tracker_backend.dto.OutboundEmailResponse;
+import com.app.money_tracker_backend.enums.EmailStatus;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+		"spring.mail.host=localhost",
+		"spring.mail.port=3025",
+		"spring.mail.username=",
+		"spring.mail.password=",
+		"spring.mail.properties.mail.smtp.auth=false",
+		"spring.mail.properties.mail.smtp.starttls.enable=false",
+		"spendify.mail.from=noreply@spendify.test"
+})
+class EmailOutboxServiceTests {
+
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+			.withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+	@Autowired
+	private EmailOutboxService emailOutboxService;
+
+	private final UUID sender = UUID.randomUUID();
+
+	@Test
+	void queuedEmailsAreDeliveredInTheBackground() throws Exception {
+		List<OutboundEmailResponse> queued = IntStream.range(0, 3)
+				.mapToObj(i -> emailOutboxService.enqueue(sender, "user" + i + "@spendify.test", "Query " + i, "Body " + i))
+				.toList();
+
+		assertThat(queued).allSatisfy(response -> assertThat(response.status()).isEqualTo(EmailStatus.QUEUED));
+		assertThat(greenMail.waitForIncomingEmail(10_000, 3)).isTrue();
+
+		MimeMessage[] received = greenMail.getReceivedMessages();
+		assertThat(received).extracting(MimeMessage::getSubject)
+				.containsExactlyInAnyOrder("Query 0", "Query 1", "Query 2");
+
+		for (OutboundEmailResponse response : queued) {
+			OutboundEmailResponse status = awaitFinalStatus(response);
+			assertThat(status.status()).isEqualTo(EmailStatus.SENT);
+			assertThat(status.attempts()).isEqualTo(1);
+			assertThat(status.sentAt()).isNotNull();
+		}
+
+		// Someone else's message id is reported as missing
+		assertThatThrownBy(() -> emailOutboxService.getStatus(UUID.randomUUID(), queued.getFirst().messageId()))
+				.isInstanceOf(ResponseStatusException.class)
+				.hasMessageContaining("404");
+	}
+
+	// The status is written right after the SMTP session closes
+	private OutboundEmailResponse awaitFinalStatus(OutboundEmailResponse queued) throws InterruptedException {
+		for (int i = 0; i < 50; i++) {
+			OutboundEmailResponse status = emailOutboxService.getStatus(sender, queued.messageId());
+			if (status.status() == EmailStatus.SENT || status.status() == EmailStatus.FAILED) {
+				return status;
+			}
+			Thread.sleep(100);
+		}
+		return emailOutboxService.getStatus(sender, queued.messageId());
+	}
+}
@@ -0,0 +1,68 @@
+package com.app.money_tracker_backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Bounds are created_at values of the JVM zone, so they are checked as instants
+class TimeBucketsTests {
+
+	private static final ZoneId KOLKATA = ZoneId.of("Asia/Kolkata");
+	private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+	@Test
+	void bucketsStartAtMidnightOfTheUsersZone() {
+		TimeBuckets.Range january = TimeBuckets.month(YearMonth.of(2026, 1), KOLKATA);
+
+		assertThat(instant(january.start())).isEqualTo(Instant.parse("2025-12-31T18:30:00Z"));
+		assertThat(instant(january.end())).isEqualTo(Instant.parse("2026-01-31T18:30:00Z"));
+	}
+
+	@Test
+	void monthsAreHalfOpenAndLeaveNoGap() {
+		TimeBuckets.YearBuckets year = TimeBuckets.year(2026, BERLIN);
+		LocalDateTime marchStart = year.month(3).start();
+
+		assertThat(year.month(2).end()).isEqualTo(marchStart);
+		assertThat(year.monthOf(marchStart.minusNanos(1))).isEqualTo(2);
+		assertThat(year.monthOf(marchStart)).isEqualTo(3);
+		assertThat(year.monthOf(year.all().end())).isZero();
+		assertThat(year.from(13).start()).isEqualTo(year.all().end());
+	}
+
+	@Test
+	void daysFollowDaylightSavingTime() {
+		TimeBuckets.Range springForward = TimeBuckets.day(LocalDate.of(2026, 3, 29), BERLIN);
+
+		assertThat(Duration.between(instant(springForward.start()), instant(springForward.end())))
+				.isEqualTo(Duration.ofHours(23));
+	}
+
+	@Test
+	void createdAtIsSeenFromTheUsersZone() {
+		LocalDateTime lateEvening = LocalDateTime.ofInstant(Instant.parse("2026-01-31T20:00:00Z"), ZoneId.systemDefault());
+
+		assertThat(TimeBuckets.monthOf(lateEvening, KOLKATA)).isEqualTo(YearMonth.of(2026, 2));
+		assertThat(TimeBuckets.monthOf(lateEvening, BERLIN)).isEqualTo(YearMonth.of(2026, 1));
+		assertThat(TimeBuckets.dayOf(lateEvening, KOLKATA)).isEqualTo(LocalDate.of(2026, 2, 1));
+	}
+
+	@Test
+	void unknownZonesAreRejected() {
+		assertThatThrownBy(() -> TimeBuckets.parseZone("Mars/Olympus"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("Mars/Olympus");
+	}
+
+	private static Instant instant(LocalDateTime createdAt) {
+		return createdAt.atZone(ZoneId.systemDefault()).toInstant();
+	}
+}
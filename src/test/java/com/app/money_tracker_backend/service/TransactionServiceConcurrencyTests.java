@@ -0,0 +1,203 @@
+package com.app.money_tracker_backend.service;
+
+import com.app.money_tracker_backend.dto.AddAmountRequest;
+import com.app.money_tracker_backend.dto.MonthlyTransactionSpentResponse;
+import com.app.money_tracker_backend.dto.TransactionLogResponse;
+import com.app.money_tracker_backend.dto.TransactionRequest;
+import com.app.money_tracker_backend.dto.TransactionResponse;
+import com.app.money_tracker_backend.enums.LogAction;
+import com.app.money_tracker_backend.model.MonthlyTransactionAggregate;
+import com.app.money_tracker_backend.model.Transaction;
+import com.app.money_tracker_backend.model.User;
+import com.app.money_tracker_backend.repository.MonthlyTransactionAggregateRepository;
+import com.app.money_tracker_backend.repository.TransactionRepository;
+import com.app.money_tracker_backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Many threads hammer a single transaction, as several devices of one user would
+@SpringBootTest
+class TransactionServiceConcurrencyTests {
+
+	private static final int THREADS = 8;
+	private static final int WRITES_PER_THREAD = 25;
+	private static final BigDecimal ONE = new BigDecimal("1.00");
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private MonthlyTransactionAggregateRepository aggregateRepository;
+
+	@Autowired
+	private TimeBuckets timeBuckets;
+
+	private String email;
+	private UUID userId;
+
+	@BeforeEach
+	void createUser() {
+		email = "concurrency-" + UUID.randomUUID() + "@spendify.test";
+		User user = new User();
+		user.setEmail(email);
+		user.setName("Concurrency");
+		userId = userRepository.save(user).getId();
+	}
+
+	@AfterEach
+	void deleteUser() throws Exception {
+		asUser(() -> {
+			authService.deleteAccount();
+			return null;
+		});
+	}
+
+	@Test
+	void concurrentAddsAreNeverLost() throws Exception {
+		UUID transactionId = create("Groceries", new BigDecimal("10.00"));
+		// the TODAY counter is built now, the adds below are applied to it as they commit
+		asUser(() -> transactionService.calculateSpent("TODAY", null, null));
+
+		hammer(thread -> () -> add(transactionId, ONE));
+
+		int adds = THREADS * WRITES_PER_THREAD;
+		Transaction tx = transactionRepository.findById(transactionId).orElseThrow();
+		assertThat(tx.getAmount()).isEqualByComparingTo(new BigDecimal("10.00").add(BigDecimal.valueOf(adds)));
+		assertThat(tx.getVersion()).isEqualTo(adds);
+
+		List<TransactionLogResponse> logs = asUser(() -> transactionService.getAllTransactionsLogs());
+		assertThat(logs).filteredOn(log -> log.getAction().equals(LogAction.ADDED.getDescription()))
+				.hasSize(adds);
+		assertThat(currentMonthAggregate(transactionId).getAmount()).isEqualByComparingTo(tx.getAmount());
+
+		List<MonthlyTransactionSpentResponse> today = asUser(() -> transactionService.calculateSpent("TODAY", null, null));
+		assertThat(today).singleElement()
+				.satisfies(spent -> assertThat(spent.amount()).isEqualByComparingTo(tx.getAmount()));
+	}
+
+	@Test
+	void updatesRetryAgainstConcurrentAdds() throws Exception {
+		UUID transactionId = create("Rent", new BigDecimal("10.00"));
+
+		// half of the threads rewrite the transaction, the other half keep adding to it,
+		// updates that keep losing the version check end with the locked attempt
+		hammer(thread -> thread % 2 == 0
+				? () -> update(transactionId, "Rent", new BigDecimal("500.00"))
+				: () -> add(transactionId, ONE));
+
+		// whatever the interleaving, the row and its monthly aggregate saw the same writes in the same order
+		Transaction tx = transactionRepository.findById(transactionId).orElseThrow();
+		assertThat(tx.getVersion()).isEqualTo((long) THREADS * WRITES_PER_THREAD);
+		assertThat(currentMonthAggregate(transactionId).getAmount()).isEqualByComparingTo(tx.getAmount());
+	}
+
+	private void hammer(ThreadWork work) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Object>> results = new ArrayList<>();
+		try {
+			for (int thread = 0; thread < THREADS; thread++) {
+				Callable<Object> write = work.forThread(thread);
+				results.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < WRITES_PER_THREAD; i++) {
+						asUser(write);
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+		} finally {
+			executor.shutdown();
+		}
+
+		// all threads are done before anything is checked (or cleaned up), then every write must have succeeded
+		assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+		for (Future<Object> result : results) {
+			result.get();
+		}
+	}
+
+	private UUID create(String name, BigDecimal amount) throws Exception {
+		TransactionRequest request = request(name, amount);
+		return asUser(() -> transactionService.createTransaction(request)).getId();
+	}
+
+	private TransactionResponse add(UUID transactionId, BigDecimal amount) {
+		AddAmountRequest request = new AddAmountRequest();
+		request.setTransactionId(transactionId);
+		request.setAmountToAdd(amount);
+		return transactionService.addAmountToTransaction(request);
+	}
+
+	private TransactionResponse update(UUID transactionId, String name, BigDecimal amount) {
+		return transactionService.updateTransaction(transactionId.toString(), request(name, amount));
+	}
+
+	private static TransactionRequest request(String name, BigDecimal amount) {
+		TransactionRequest request = new TransactionRequest();
+		request.setTransactionName(name);
+		request.setTransactionType("DEBIT");
+		request.setAmount(amount);
+		return request;
+	}
+
+	private MonthlyTransactionAggregate currentMonthAggregate(UUID transactionId) {
+		YearMonth month = YearMonth.now(timeBuckets.zoneOf(userId));
+		return aggregateRepository
+				.findAllByUserIdAndYearAndMonthAndDeletedFalseAndAmountNotNull(userId, month.getYear(), month.getMonthValue())
+				.stream()
+				.filter(aggregate -> aggregate.getTransactionId().equals(transactionId))
+				.findFirst()
+				.orElseThrow();
+	}
+
+	// The service reads the user from the security context, which is per thread
+	private <T> T asUser(Callable<T> call) throws Exception {
+		List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList("OAUTH2_USER");
+		DefaultOAuth2User principal = new DefaultOAuth2User(authorities, Map.of("sub", email, "email", email), "email");
+		SecurityContextHolder.getContext().setAuthentication(new OAuth2AuthenticationToken(principal, authorities, "google"));
+		try {
+			return call.call();
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+
+	@FunctionalInterface
+	private interface ThreadWork {
+		Callable<Object> forThread(int thread);
+	}
+}